@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Аргументы командной строки вида ключ=значение.
+ */
+public final class Arguments {
+
+    private final Map<String, String> values;
+
+    private Arguments(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static Arguments parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int pos = arg.indexOf('=');
+            if (pos <= 0) {
+                throw new IllegalArgumentException(String.format("Аргумент '%s' не в формате ключ=значение.", arg));
+            }
+            values.put(arg.substring(0, pos), arg.substring(pos + 1));
+        }
+        return new Arguments(values);
+    }
+
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return values.containsKey(key) ? Long.parseLong(values.get(key)) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : defaultValue;
+    }
+
+    /**
+     * Длительность в формате Spring Boot: 500ms, 30s, 5m или ISO-8601.
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        return values.containsKey(key) ? DurationStyle.detectAndParse(values.get(key)) : defaultValue;
+    }
+}
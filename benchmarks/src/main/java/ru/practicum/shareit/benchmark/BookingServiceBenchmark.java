@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бронирования арендатора и владельца по каждому состоянию BookingSearchState.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private String state;
+
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp(ServerState server) {
+        bookingService = server.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingResultDto> getBookingsByUserId() {
+        return bookingService.getBookingsByUserId(state, 7L, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingResultDto> getBookingsItemsByUserId() {
+        return bookingService.getBookingsItemsByUserId(state, 1L, 0, 20);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.RestTemplateTransport;
+import ru.practicum.shareit.client.WebClientTransport;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Путь запроса через клиент шлюза до сервера и обратно без сети: сервер заменён заглушкой,
+ * которая возвращает страницу из 10 бронирований. Измеряется собственная работа шлюза.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GatewayProxyBenchmark {
+
+    private static final String SERVER_URL = "http://shareit-server";
+
+    private static final String BOOKINGS_JSON = IntStream.rangeClosed(1, 10)
+            .mapToObj(id -> "{\"id\":" + id + ",\"start\":\"2022-09-01T12:00:00\",\"end\":\"2022-09-02T12:00:00\"," +
+                    "\"item\":{\"id\":" + id + ",\"name\":\"Item" + id + "\"},\"booker\":{\"id\":1}," +
+                    "\"status\":\"APPROVED\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+    private BookingClient blockingClient;
+
+    private BookingClient reactiveClient;
+
+    @Setup
+    public void setUp() {
+        byte[] body = BOOKINGS_JSON.getBytes(StandardCharsets.UTF_8);
+
+        blockingClient = new BookingClient(SERVER_URL, baseUrl -> {
+            RestTemplate rest = new RestTemplate(stubServer(body));
+            rest.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+            return new RestTemplateTransport(rest);
+        });
+
+        reactiveClient = new BookingClient(SERVER_URL, baseUrl -> new WebClientTransport(
+                WebClient.builder()
+                        .baseUrl(baseUrl)
+                        .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(BOOKINGS_JSON)
+                                .build()))
+                        .build()
+        ));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> blockingTransport() {
+        return blockingClient.getBookingsByUserId("ALL", 1L, 0, 10, null).block();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> reactiveTransport() {
+        return reactiveClient.getBookingsByUserId("ALL", 1L, 0, 10, null).block();
+    }
+
+    private static ClientHttpRequestFactory stubServer(byte[] body) {
+        return (uri, method) -> new ClientHttpRequest() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public ClientHttpResponse execute() {
+                return stubResponse(body);
+            }
+
+            @Override
+            public OutputStream getBody() {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            public String getMethodValue() {
+                return method.name();
+            }
+
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    private static ClientHttpResponse stubResponse(byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length);
+        return new ClientHttpResponse() {
+            @Override
+            public HttpStatus getStatusCode() {
+                return HttpStatus.OK;
+            }
+
+            @Override
+            public int getRawStatusCode() {
+                return HttpStatus.OK.value();
+            }
+
+            @Override
+            public String getStatusText() {
+                return HttpStatus.OK.getReasonPhrase();
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+}
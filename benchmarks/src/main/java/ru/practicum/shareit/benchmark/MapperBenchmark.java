@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования MapStruct, выполняемые для каждой строки ответа.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+    private final ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
+    private final ItemRequestMapper itemRequestMapper = Mappers.getMapper(ItemRequestMapper.class);
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final User user = new User(1L, "User1", "user1@mail.ru");
+    private final Item item = new Item(1L, "Item1", "Item 1 description", true, 2L, 1L);
+    private final Booking booking = new Booking(1L, now.minusDays(1), now.plusDays(1), item, user,
+            BookingStatus.APPROVED);
+    private final Comment comment = new Comment(1L, "Comment 1", item, user, now);
+    private final ItemRequest itemRequest = new ItemRequest(1L, "Request 1", user, now);
+
+    @Benchmark
+    public BookingResultDto bookingToBookingDto() {
+        return bookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return itemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public CommentDto commentToCommentDto() {
+        return itemMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestToItemRequestDto() {
+        return itemRequestMapper.toItemRequestDto(itemRequest);
+    }
+
+    @Benchmark
+    public ItemRequestDto.RequestItem itemToRequestItem() {
+        return itemRequestMapper.toItemRequestDtoItem(item);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая страница бронирований владельца при разном общем числе бронирований.
+ * <p>
+ * У владельца 10 вещей и {@value OwnerBookingsState#OWNER_BOOKINGS} бронирований при любом размере таблицы,
+ * остальные бронирования относятся к вещам других владельцев. Время страницы должно зависеть только
+ * от бронирований владельца, а не от параметра bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OwnerBookingsBenchmark {
+
+    private static final long OWNER_ID = 1L;
+
+    @Param({"ALL", "PAST"})
+    private String state;
+
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp(OwnerBookingsState server) {
+        bookingService = server.context.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingResultDto> getBookingsItemsByUserId() {
+        return bookingService.getBookingsItemsByUserId(state, OWNER_ID, 0, 20);
+    }
+
+    @Benchmark
+    public BookingSliceDto getBookingsItemsByUserIdFromCursor() {
+        return bookingService.getBookingsItemsByUserIdFromCursor(state, OWNER_ID, null, 20);
+    }
+
+    @State(Scope.Benchmark)
+    public static class OwnerBookingsState {
+
+        static final int OWNER_BOOKINGS = 2000;
+
+        private static final int USERS = 1000;
+        private static final int ITEMS = 10_000;
+        private static final int OWNER_ITEMS = 10;
+
+        @Param({"20000", "200000", "1000000"})
+        private int bookings;
+
+        private ConfigurableApplicationContext context;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = ServerState.startServer();
+            seed(context.getBean(JdbcTemplate.class));
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        private void seed(JdbcTemplate jdbcTemplate) {
+            jdbcTemplate.execute("insert into USERS (id, name, email)" +
+                    " select x, 'User' || x, 'user' || x || '@mail.ru' from system_range(1, " + USERS + ")");
+            // Вещи 1..10 принадлежат владельцу 1, остальные - пользователям 2..1000
+            jdbcTemplate.execute("insert into ITEMS (id, name, description, is_available, owner_id)" +
+                    " select x, 'Item' || x, 'Item ' || x || ' description', true," +
+                    " case when x <= " + OWNER_ITEMS + " then 1 else mod(x, " + (USERS - 1) + ") + 2 end" +
+                    " from system_range(1, " + ITEMS + ")");
+            jdbcTemplate.execute("insert into BOOKINGS (id, start_date, end_date, item_id, owner_id, booker_id, status," +
+                    " phase)" +
+                    " select x, dateadd('HOUR', mod(x * 37, 20000) - 15000, localtimestamp)," +
+                    " dateadd('HOUR', mod(x * 37, 20000) - 14976, localtimestamp)," +
+                    " i.id, i.owner_id, mod(x * 7, " + (USERS - 1) + ") + 2," +
+                    " case mod(x, 10) when 0 then 'WAITING' when 1 then 'REJECTED' when 2 then 'CANCELED'" +
+                    " else 'APPROVED' end," +
+                    " case when mod(x * 37, 20000) < 14976 then 'PAST'" +
+                    " when mod(x * 37, 20000) <= 15000 then 'CURRENT' else 'FUTURE' end" +
+                    " from system_range(1, " + bookings + ") join ITEMS i on i.id =" +
+                    " case when x <= " + OWNER_BOOKINGS + " then mod(x, " + OWNER_ITEMS + ") + 1" +
+                    " else mod(x, " + (ITEMS - OWNER_ITEMS) + ") + " + (OWNER_ITEMS + 1) + " end");
+            for (String table : new String[]{"USERS", "ITEMS", "BOOKINGS"}) {
+                jdbcTemplate.execute("alter sequence " + table + "_seq restart with" +
+                        " (select max(id) + 1 from " + table + ")");
+            }
+            jdbcTemplate.execute("analyze");
+        }
+    }
+}
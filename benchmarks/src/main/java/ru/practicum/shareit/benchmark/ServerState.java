@@ -0,0 +1,124 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.ShareItServer;
+
+import java.io.IOException;
+
+/**
+ * Контекст сервера без веб-слоя на встроенной H2 с тестовыми данными.
+ * <p>
+ * 200 пользователей, 4000 вещей (по 20 у владельца), 1000 запросов, 20000 бронирований в прошлом,
+ * настоящем и будущем с разными статусами и 8000 комментариев.
+ * <p>
+ * Сервер и шлюз лежат в одном пакете, поэтому классы шлюза исключаются из сканирования компонентов.
+ */
+@State(Scope.Benchmark)
+public class ServerState {
+
+    static final int USERS = 200;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = startServer();
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    /**
+     * Контекст сервера на пустой H2 со схемой из миграций.
+     */
+    static ConfigurableApplicationContext startServer() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("gatewayExcludeFilter", new GatewayExcludeFilter()))
+                .properties("logging.level.root=WARN", "spring.jpa.properties.hibernate.format_sql=false")
+                .run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("insert into USERS (id, name, email)" +
+                " select x, 'User' || x, 'user' || x || '@mail.ru' from system_range(1, " + USERS + ")");
+        jdbcTemplate.execute("insert into REQUESTS (id, description, requestor_id, created)" +
+                " select x, 'Request ' || x, mod(x, 200) + 1, dateadd('HOUR', -x, localtimestamp)" +
+                " from system_range(1, 1000)");
+        jdbcTemplate.execute("insert into ITEMS (id, name, description, is_available, owner_id, request_id)" +
+                " select x, 'Item' || x, 'Item ' || x || ' description', true, mod(x, 200) + 1," +
+                " case when mod(x, 4) = 0 then x / 4 end from system_range(1, 4000)");
+        jdbcTemplate.execute("insert into BOOKINGS (id, start_date, end_date, item_id, owner_id, booker_id, status," +
+                " phase)" +
+                " select x, dateadd('HOUR', x - 10000, localtimestamp), dateadd('HOUR', x - 9976, localtimestamp)," +
+                " i.id, i.owner_id, mod(x * 7, 200) + 1," +
+                " case mod(x, 10) when 0 then 'WAITING' when 1 then 'REJECTED' when 2 then 'CANCELED'" +
+                " else 'APPROVED' end," +
+                " case when x < 9976 then 'PAST' when x <= 10000 then 'CURRENT' else 'FUTURE' end" +
+                " from system_range(1, 20000) join ITEMS i on i.id = mod(x, 4000) + 1");
+        // Сводки бронирований вещей, как их заполняет миграция V9
+        jdbcTemplate.execute("insert into ITEM_BOOKINGS (item_id, last_booking_id, last_booker_id, last_end_date," +
+                " next_booking_id, next_booker_id, next_end_date, version)" +
+                " select s.item_id, l.id, l.booker_id, l.end_date, n.id, n.booker_id, n.end_date, 0" +
+                " from (select i.id as item_id," +
+                " (select lb.id from BOOKINGS lb where lb.item_id = i.id and lb.end_date < localtimestamp" +
+                " order by lb.end_date desc, lb.id fetch first 1 rows only) as last_id," +
+                " (select nb.id from BOOKINGS nb where nb.item_id = i.id and nb.end_date > localtimestamp" +
+                " order by nb.end_date, nb.id fetch first 1 rows only) as next_id" +
+                " from ITEMS i) s" +
+                " left join BOOKINGS l on l.id = s.last_id left join BOOKINGS n on n.id = s.next_id");
+        jdbcTemplate.execute("insert into COMMENTS (id, text, item_id, author_id, created)" +
+                " select x, 'Comment ' || x, mod(x, 4000) + 1, mod(x, 200) + 1, localtimestamp from system_range(1, 8000)");
+        for (String table : new String[]{"USERS", "REQUESTS", "ITEMS", "BOOKINGS", "COMMENTS"}) {
+            jdbcTemplate.execute("alter sequence " + table + "_seq restart with" +
+                    " (select max(id) + 1 from " + table + ")");
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    /**
+     * Исключает классы из jar шлюза: @SpringBootApplication учитывает все бины TypeExcludeFilter.
+     */
+    private static final class GatewayExcludeFilter extends TypeExcludeFilter {
+
+        private static final String GATEWAY_LOCATION = ShareItGateway.class.getProtectionDomain()
+                .getCodeSource().getLocation().toString();
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory)
+                throws IOException {
+            return metadataReader.getResource().getURL().toString().contains(GATEWAY_LOCATION);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.config.VirtualThreadConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Модель потоков обработки запросов: пул Tomcat из 200 потоков против виртуального потока на запрос
+ * (shareit.threads.virtual=true). Волна из concurrency одновременных запросов, каждый из которых
+ * ждёт blockMillis, как запрос к БД или к серверу; измеряется время обработки всей волны.
+ * <p>
+ * Вариант virtual требует JVM 21 и новее, на более ранней JVM его настройка завершается ошибкой:
+ * <pre>
+ * mvn -pl benchmarks -am -DskipTests -P benchmarks verify -Djmh.include=ThreadModel
+ * mvn ... -Djmh.include=ThreadModel -Djmh.args="-p threads=pooled"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    // server.tomcat.threads.max по умолчанию
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"pooled", "virtual"})
+    private String threads;
+
+    @Param({"200", "2000"})
+    private int concurrency;
+
+    @Param({"5"})
+    private int blockMillis;
+
+    private ExecutorService executor;
+
+    private List<Callable<Integer>> wave;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? VirtualThreadConfig.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        wave = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int request = i;
+            wave.add(() -> {
+                Thread.sleep(blockMillis);
+                return request;
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int requestWave() throws Exception {
+        int sum = 0;
+        for (Future<Integer> response : executor.invokeAll(wave)) {
+            sum += response.get();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Загрузка пакетами JDBC insert с фиксацией транзакции после каждого пакета.
+ */
+class BatchInsertSink implements RowSink {
+
+    private final Connection connection;
+
+    private final PreparedStatement statement;
+
+    private final int batchSize;
+
+    private int pending;
+
+    BatchInsertSink(Connection connection, String table, String[] columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.statement = connection.prepareStatement(String.format("insert into %s (%s) values (%s)",
+                table, String.join(", ", columns), String.join(", ", Collections.nCopies(columns.length, "?"))));
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Загрузка в PostgreSQL через COPY FROM STDIN в формате CSV. Строки копятся в буфере
+ * и отправляются серверу кусками, вся таблица загружается одной командой COPY.
+ */
+class CopySink implements RowSink {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Connection connection;
+
+    private final CopyIn copyIn;
+
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+
+    CopySink(Connection connection, String table, String[] columns) throws SQLException {
+        this.connection = connection;
+        this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn(String.format("copy %s (%s) from stdin with (format csv)", table, String.join(", ", columns)));
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            append(values[i]);
+        }
+        buffer.append('\n');
+        if (buffer.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+            connection.commit();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            // Пустое значение без кавычек в CSV - это NULL
+            return;
+        }
+        if (value instanceof String) {
+            buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+        } else if (value instanceof LocalDateTime) {
+            buffer.append(TIMESTAMP.format((LocalDateTime) value));
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,276 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import org.flywaydb.core.Flyway;
+import ru.practicum.shareit.benchmark.Arguments;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетических данных ShareIt для PostgreSQL или H2.
+ * <p>
+ * Схема создаётся миграциями сервера, таблицы должны быть пустыми. Строки загружаются по порядку внешних
+ * ключей с явными id, после чего последовательности id сдвигаются за последнюю строку. PostgreSQL загружается
+ * командой COPY, H2 - пакетами insert. Каждая строка вычисляется только из seed и своего номера, поэтому
+ * бронирование находит владельца вещи, а комментарий - прошедшее бронирование без хранения данных в памяти.
+ * <p>
+ * Владельцы вещей, арендаторы, популярные вещи и авторы запросов выбираются с перекосом {@link Skew}.
+ * <pre>
+ * java ... DatasetGenerator url=jdbc:postgresql://localhost:5432/shareit user=root password=root \
+ *     users=1000000 items=5000000 requests=1000000 bookings=20000000 comments=5000000 skew=3
+ * </pre>
+ */
+public final class DatasetGenerator {
+
+    /**
+     * Слова в названиях и описаниях вещей, нагрузочный драйвер ищет по ним вещи.
+     */
+    public static final List<String> WORDS = List.of(
+        "дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "велосипед", "самокат", "лыжи",
+        "сноуборд", "байдарка", "мангал", "пила", "болгарка", "миксер", "проектор", "колонка",
+        "фотоаппарат", "штатив", "спальник", "рюкзак", "коляска", "автокресло", "удочка", "гитара"
+    );
+
+    private static final String[] STATUSES = {"APPROVED", "WAITING", "REJECTED", "CANCELED"};
+
+    private static final String[] USER_COLUMNS = {"id", "name", "email"};
+    private static final String[] REQUEST_COLUMNS = {"id", "description", "requestor_id", "created"};
+    private static final String[] ITEM_COLUMNS = {"id", "name", "description", "is_available", "owner_id",
+        "request_id"};
+    private static final String[] BOOKING_COLUMNS = {"id", "start_date", "end_date", "item_id", "owner_id",
+        "booker_id", "status", "phase"};
+    private static final String[] COMMENT_COLUMNS = {"id", "text", "item_id", "author_id", "created"};
+
+    // Сводки последнего и следующего бронирования вещей, как их заполняет миграция V9
+    private static final String ITEM_BOOKINGS = "insert into ITEM_BOOKINGS (item_id, last_booking_id, last_booker_id," +
+            " last_end_date, next_booking_id, next_booker_id, next_end_date, version)" +
+            " select s.item_id, l.id, l.booker_id, l.end_date, n.id, n.booker_id, n.end_date, 0" +
+            " from (select i.id as item_id," +
+            " (select lb.id from BOOKINGS lb where lb.item_id = i.id and lb.end_date < localtimestamp" +
+            " order by lb.end_date desc, lb.id fetch first 1 rows only) as last_id," +
+            " (select nb.id from BOOKINGS nb where nb.item_id = i.id and nb.end_date > localtimestamp" +
+            " order by nb.end_date, nb.id fetch first 1 rows only) as next_id" +
+            " from ITEMS i) s" +
+            " left join BOOKINGS l on l.id = s.last_id left join BOOKINGS n on n.id = s.next_id";
+
+    // Бронирования начинаются от двух лет назад до полугода вперёд, около 80% уже закончились
+    private static final long BOOKING_PAST_HOURS = 2 * 365 * 24;
+    private static final long BOOKING_SPAN_HOURS = BOOKING_PAST_HOURS + 183 * 24;
+
+    private final PrintWriter out = new PrintWriter(System.out, true, StandardCharsets.UTF_8);
+
+    private final Arguments args;
+    private final long users;
+    private final long items;
+    private final long requests;
+    private final long bookings;
+    private final long comments;
+    private final long seed;
+    private final int batchSize;
+    private final Skew userSkew;
+    private final Skew itemSkew;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private DatasetGenerator(Arguments args) {
+        this.args = args;
+        this.users = args.getLong("users", 100_000);
+        this.items = args.getLong("items", users * 5);
+        this.requests = args.getLong("requests", users);
+        this.bookings = args.getLong("bookings", items * 4);
+        this.comments = args.getLong("comments", items);
+        this.seed = args.getLong("seed", 42);
+        this.batchSize = args.getInt("batch", 1000);
+        double skew = args.getDouble("skew", 3);
+        this.userSkew = new Skew(users, skew);
+        this.itemSkew = new Skew(items, skew);
+        if (comments > 0 && bookings == 0) {
+            throw new IllegalArgumentException("Комментарии генерируются только по бронированиям.");
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        new DatasetGenerator(Arguments.parse(args)).run();
+    }
+
+    private void run() throws SQLException {
+        String url = args.getString("url", "jdbc:h2:file:./target/shareit-dataset");
+        String user = args.getString("user", "root");
+        String password = args.getString("password", "root");
+        boolean postgres = url.startsWith("jdbc:postgresql:");
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .locations("classpath:db/migration/common", "classpath:db/migration/" + (postgres ? "postgresql" : "h2"))
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            checkEmpty(connection);
+            // Ссылки согласованы по построению, поэтому H2 не проверяет внешние ключи на каждой строке
+            setReferentialIntegrity(connection, postgres, false);
+
+            load(connection, postgres, "USERS", USER_COLUMNS, users, this::user);
+            load(connection, postgres, "REQUESTS", REQUEST_COLUMNS, requests, this::request);
+            load(connection, postgres, "ITEMS", ITEM_COLUMNS, items, this::item);
+            load(connection, postgres, "BOOKINGS", BOOKING_COLUMNS, bookings, this::booking);
+            load(connection, postgres, "COMMENTS", COMMENT_COLUMNS, comments, this::comment);
+            loadItemBookings(connection);
+
+            for (String table : new String[]{"USERS", "REQUESTS", "ITEMS", "BOOKINGS", "COMMENTS"}) {
+                restartSequence(connection, postgres, table);
+            }
+            setReferentialIntegrity(connection, postgres, true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze");
+            }
+            connection.commit();
+        }
+    }
+
+    private void load(Connection connection, boolean postgres, String table, String[] columns, long count,
+                      RowFactory rows) throws SQLException {
+        long started = System.nanoTime();
+        try (RowSink sink = postgres
+                ? new CopySink(connection, table, columns)
+                : new BatchInsertSink(connection, table, columns, batchSize)) {
+            for (long id = 1; id <= count; id++) {
+                sink.add(rows.row(id));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        out.printf("%-13s %,12d строк за %8.1f с (%,.0f строк/с)%n", table, count, seconds, count / seconds);
+    }
+
+    private void loadItemBookings(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        int count;
+        try (Statement statement = connection.createStatement()) {
+            count = statement.executeUpdate(ITEM_BOOKINGS);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        out.printf("%-13s %,12d строк за %8.1f с (%,.0f строк/с)%n", "ITEM_BOOKINGS", count, seconds, count / seconds);
+    }
+
+    private Object[] user(long id) {
+        return new Object[]{id, "User " + id, "user" + id + "@mail.ru"};
+    }
+
+    private Object[] request(long id) {
+        SplittableRandom random = random(1, id);
+        return new Object[]{id,
+            "Ищу: " + word(random) + ", срок " + (1 + random.nextInt(14)) + " дней",
+            userSkew.next(random),
+            now.minusMinutes(random.nextLong(365L * 24 * 60))};
+    }
+
+    private Object[] item(long id) {
+        SplittableRandom random = random(2, id);
+        String name = word(random);
+        return new Object[]{id,
+            name + " " + id,
+            name + ", " + word(random) + " и " + word(random) + " в комплекте",
+            random.nextInt(10) != 0,
+            userSkew.next(random),
+            requests > 0 && random.nextInt(5) == 0 ? 1 + random.nextLong(requests) : null};
+    }
+
+    private long itemOwner(long itemId) {
+        return (long) item(itemId)[4];
+    }
+
+    private Object[] booking(long id) {
+        SplittableRandom random = random(3, id);
+        long itemId = itemSkew.next(random);
+        long ownerId = itemOwner(itemId);
+        long bookerId = userSkew.next(random);
+        if (bookerId == ownerId) {
+            // Владелец не бронирует свою вещь
+            bookerId = bookerId % users + 1;
+        }
+        LocalDateTime start = now.minusHours(BOOKING_PAST_HOURS).plusMinutes(random.nextLong(BOOKING_SPAN_HOURS * 60));
+        LocalDateTime end = start.plusHours(1 + random.nextInt(14 * 24));
+        int status = random.nextInt(20);
+        // Фаза на момент генерации, дальше её сдвигает BookingPhaseSweeper запущенного сервера
+        String phase = end.isBefore(now) ? "PAST" : start.isAfter(now) ? "FUTURE" : "CURRENT";
+        return new Object[]{id, start, end, itemId, ownerId, bookerId,
+            STATUSES[status < 14 ? 0 : status < 17 ? 1 : status < 19 ? 2 : 3], phase};
+    }
+
+    private Object[] comment(long id) {
+        SplittableRandom random = random(4, id);
+        // Комментарий оставляет арендатор по завершённому подтверждённому бронированию
+        Object[] booking = null;
+        for (int attempt = 0; attempt < 100 && booking == null; attempt++) {
+            Object[] candidate = booking(1 + random.nextLong(bookings));
+            if ("APPROVED".equals(candidate[6]) && ((LocalDateTime) candidate[2]).isBefore(now)) {
+                booking = candidate;
+            }
+        }
+        if (booking == null) {
+            throw new IllegalStateException("Не найдено завершённое бронирование для комментария.");
+        }
+        return new Object[]{id,
+            "Всё исправно (" + word(random) + "), рекомендую",
+            booking[3],
+            booking[5],
+            ((LocalDateTime) booking[2]).plusHours(1 + random.nextInt(72))};
+    }
+
+    private SplittableRandom random(int table, long id) {
+        return new SplittableRandom(seed * 31 + table * 0x9E3779B97F4A7C15L + id);
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private static void checkEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from USERS")) {
+            resultSet.next();
+            if (resultSet.getLong(1) > 0) {
+                throw new IllegalStateException("Таблица USERS не пуста, генератор загружает данные в пустую базу.");
+            }
+        }
+    }
+
+    private static void setReferentialIntegrity(Connection connection, boolean postgres, boolean enabled)
+            throws SQLException {
+        if (!postgres) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set referential_integrity " + enabled);
+            }
+        }
+    }
+
+    private static void restartSequence(Connection connection, boolean postgres, String table) throws SQLException {
+        long next;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table)) {
+            resultSet.next();
+            next = resultSet.getLong(1);
+        }
+        String sequence = table.toLowerCase() + "_seq";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(postgres
+                    ? String.format("select setval('%s', %d, false)", sequence, next)
+                    : String.format("alter sequence %s restart with %d", sequence, next));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowFactory {
+        Object[] row(long id);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import java.sql.SQLException;
+
+/**
+ * Приёмник строк одной таблицы. Строки пишутся порциями, close дописывает остаток.
+ */
+interface RowSink extends AutoCloseable {
+
+    void add(Object... values) throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+}
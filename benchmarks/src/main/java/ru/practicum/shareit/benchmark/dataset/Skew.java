@@ -0,0 +1,37 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Неравномерный выбор id из диапазона 1..count: малые id выбираются чаще.
+ * <p>
+ * id = 1 + count * u^exponent для равномерного u из [0, 1). При exponent = 1 распределение равномерное,
+ * при exponent = 3 на первый 1% id приходится около 21% выборок, на первые 10% - около 46%.
+ * Генератор данных и нагрузочный драйвер используют одно распределение, поэтому активные
+ * пользователи нагрузки - те же, у кого больше всего вещей и бронирований.
+ */
+public final class Skew {
+
+    private final long count;
+
+    private final double exponent;
+
+    public Skew(long count, double exponent) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Размер диапазона должен быть положительным.");
+        }
+        if (exponent < 1) {
+            throw new IllegalArgumentException("Показатель перекоса не может быть меньше 1.");
+        }
+        this.count = count;
+        this.exponent = exponent;
+    }
+
+    public long next(SplittableRandom random) {
+        return 1 + Math.min(count - 1, (long) (count * Math.pow(random.nextDouble(), exponent)));
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
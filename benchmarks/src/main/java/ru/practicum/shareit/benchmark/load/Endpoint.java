@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Эндпоинты шлюза, которые воспроизводит нагрузочный драйвер, и их доля в смеси по умолчанию.
+ */
+enum Endpoint {
+
+    ITEM("item", 25) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            return workload.get(random, "/items/" + workload.item(random));
+        }
+    },
+    OWNER_ITEMS("owner-items", 15) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            return workload.get(random, "/items?from=0&size=20");
+        }
+    },
+    SEARCH("search", 15) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            String text = DatasetGenerator.WORDS.get(random.nextInt(DatasetGenerator.WORDS.size()));
+            return workload.get(random, "/items/search?from=0&size=20&text="
+                    + URLEncoder.encode(text, StandardCharsets.UTF_8));
+        }
+    },
+    BOOKINGS("bookings", 15) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            return workload.get(random, "/bookings?from=0&size=20&state=" + state(random));
+        }
+    },
+    OWNER_BOOKINGS("owner-bookings", 10) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            return workload.get(random, "/bookings/owner?from=0&size=20&state=" + state(random));
+        }
+    },
+    REQUESTS("requests", 10) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            return workload.get(random, "/requests/all?from=0&size=20");
+        }
+    },
+    USER("user", 5) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            return workload.get(random, "/users/" + workload.user(random));
+        }
+    },
+    ADD_REQUEST("add-request", 5) {
+        @Override
+        HttpRequest.Builder request(Workload workload, SplittableRandom random) {
+            return HttpRequest.newBuilder(URI.create(workload.getBaseUrl() + "/requests"))
+                    .header("X-Sharer-User-Id", String.valueOf(workload.user(random)))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"description\":\"Нагрузочный запрос " + random.nextInt() + "\"}"));
+        }
+    };
+
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final String key;
+
+    private final int defaultWeight;
+
+    Endpoint(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(Workload workload, SplittableRandom random);
+
+    String getKey() {
+        return key;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    static Endpoint byKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Неизвестный эндпоинт '%s'.", key));
+    }
+
+    private static String state(SplittableRandom random) {
+        return STATES[random.nextInt(STATES.length)];
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * Задержки ответов одного эндпоинта в наносекундах и число ошибок. Экземпляр принадлежит одному потоку,
+ * результаты потоков объединяются после прогона.
+ */
+class LatencyStats {
+
+    private long[] latencies = new long[1024];
+
+    private int count;
+
+    private long errors;
+
+    void record(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i]);
+        }
+        errors += other.errors;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Перцентиль методом ближайшего ранга, 0 при отсутствии ответов. Сортирует накопленные значения.
+     */
+    long percentile(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(latencies, 0, count);
+        int rank = (int) Math.ceil(percent / 100 * count);
+        return latencies[Math.max(rank, 1) - 1];
+    }
+}
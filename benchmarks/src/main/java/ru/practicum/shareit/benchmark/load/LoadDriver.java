@@ -0,0 +1,199 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ru.practicum.shareit.benchmark.Arguments;
+import ru.practicum.shareit.benchmark.dataset.Skew;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Нагрузочный драйвер с замкнутым циклом: каждый из concurrency потоков отправляет следующий запрос
+ * к шлюзу сразу после ответа на предыдущий (и паузы think). Эндпоинт выбирается по весам смеси,
+ * пользователи и вещи - с тем же перекосом, что и в генераторе данных.
+ * <p>
+ * Ответы за время прогрева не учитываются. По каждому эндпоинту выводятся число запросов, ошибок
+ * (статус 4xx/5xx или сбой соединения), пропускная способность, p50, p99 и максимум задержки;
+ * при заданном report те же данные пишутся в CSV.
+ * <pre>
+ * java ... LoadDriver url=http://localhost:8080 users=1000000 items=5000000 skew=3 \
+ *     concurrency=64 warmup=30s duration=2m mix=item=40,search=20,bookings=40 report=target/load.csv
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private final HttpClient httpClient;
+
+    private final Workload workload;
+
+    private final Duration timeout;
+
+    private final Duration think;
+
+    private LoadDriver(HttpClient httpClient, Workload workload, Duration timeout, Duration think) {
+        this.httpClient = httpClient;
+        this.workload = workload;
+        this.timeout = timeout;
+        this.think = think;
+    }
+
+    public static void main(String[] arguments) throws InterruptedException, IOException {
+        Arguments args = Arguments.parse(arguments);
+        long users = args.getLong("users", 100_000);
+        double skew = args.getDouble("skew", 3);
+        Workload workload = new Workload(args.getString("url", "http://localhost:8080"),
+                new Skew(users, skew),
+                new Skew(args.getLong("items", users * 5), skew),
+                args.getString("mix", ""));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LoadDriver driver = new LoadDriver(httpClient, workload,
+                args.getDuration("timeout", Duration.ofSeconds(10)),
+                args.getDuration("think", Duration.ZERO));
+
+        int concurrency = args.getInt("concurrency", 32);
+        Duration warmup = args.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = args.getDuration("duration", Duration.ofSeconds(60));
+        System.out.printf("Нагрузка на %s: %d потоков, прогрев %s, замер %s%n",
+                workload.getBaseUrl(), concurrency, warmup, duration);
+
+        Map<Endpoint, LatencyStats> stats = driver.run(concurrency, warmup, duration, args.getLong("seed", 42));
+
+        String report = args.getString("report", "");
+        print(stats, workload.getEndpoints(), duration, new PrintWriter(System.out, true, StandardCharsets.UTF_8));
+        if (!report.isEmpty()) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Path.of(report)))) {
+                writeCsv(stats, workload.getEndpoints(), duration, writer);
+            }
+        }
+    }
+
+    private Map<Endpoint, LatencyStats> run(int concurrency, Duration warmup, Duration duration, long seed)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(new SplittableRandom(seed + i), measureFrom, measureTo);
+            worker.setName("load-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+
+        Map<Endpoint, LatencyStats> total = new EnumMap<>(Endpoint.class);
+        for (Worker worker : workers) {
+            worker.join();
+            worker.stats.forEach((endpoint, stats) ->
+                    total.computeIfAbsent(endpoint, key -> new LatencyStats()).merge(stats));
+        }
+        return total;
+    }
+
+    private static void print(Map<Endpoint, LatencyStats> stats, Endpoint[] endpoints, Duration duration,
+                              PrintWriter out) {
+        out.printf("%-16s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s",
+                "p50, ms", "p99, ms", "max, ms");
+        LatencyStats all = new LatencyStats();
+        for (Endpoint endpoint : endpoints) {
+            LatencyStats endpointStats = stats.getOrDefault(endpoint, new LatencyStats());
+            all.merge(endpointStats);
+            printRow(endpoint.getKey(), endpointStats, duration, out);
+        }
+        printRow("total", all, duration, out);
+    }
+
+    private static void printRow(String name, LatencyStats stats, Duration duration, PrintWriter out) {
+        out.printf("%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", name, stats.getCount(), stats.getErrors(),
+                throughput(stats, duration), millis(stats.percentile(50)), millis(stats.percentile(99)),
+                millis(stats.percentile(100)));
+    }
+
+    private static void writeCsv(Map<Endpoint, LatencyStats> stats, Endpoint[] endpoints, Duration duration,
+                                 PrintWriter out) {
+        out.println("endpoint,requests,errors,throughput,p50_ms,p99_ms,max_ms");
+        for (Endpoint endpoint : endpoints) {
+            LatencyStats endpointStats = stats.getOrDefault(endpoint, new LatencyStats());
+            out.printf(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f%n", endpoint.getKey(),
+                    endpointStats.getCount(), endpointStats.getErrors(), throughput(endpointStats, duration),
+                    millis(endpointStats.percentile(50)), millis(endpointStats.percentile(99)),
+                    millis(endpointStats.percentile(100)));
+        }
+    }
+
+    private static double throughput(LatencyStats stats, Duration duration) {
+        return stats.getCount() * 1e9 / duration.toNanos();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private final class Worker extends Thread {
+
+        private final SplittableRandom random;
+
+        private final long measureFrom;
+
+        private final long measureTo;
+
+        private final Map<Endpoint, LatencyStats> stats = new EnumMap<>(Endpoint.class);
+
+        private Worker(SplittableRandom random, long measureFrom, long measureTo) {
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < measureTo && !isInterrupted()) {
+                Endpoint endpoint = workload.next(random);
+                long started = System.nanoTime();
+                boolean measured = started >= measureFrom;
+                try {
+                    HttpResponse<Void> response = httpClient.send(
+                            endpoint.request(workload, random).timeout(timeout).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (measured) {
+                        LatencyStats endpointStats = stats.computeIfAbsent(endpoint, key -> new LatencyStats());
+                        endpointStats.record(System.nanoTime() - started);
+                        if (response.statusCode() >= 400) {
+                            endpointStats.recordError();
+                        }
+                    }
+                } catch (IOException e) {
+                    if (measured) {
+                        stats.computeIfAbsent(endpoint, key -> new LatencyStats()).recordError();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                pause();
+            }
+        }
+
+        private void pause() {
+            if (!think.isZero()) {
+                try {
+                    Thread.sleep(think.toMillis());
+                } catch (InterruptedException e) {
+                    interrupt();
+                }
+            }
+        }
+    }
+}
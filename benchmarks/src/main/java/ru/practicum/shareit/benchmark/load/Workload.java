@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ru.practicum.shareit.benchmark.dataset.Skew;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Смесь эндпоинтов и распределение пользователей и вещей, совпадающее с генератором данных.
+ */
+class Workload {
+
+    private final String baseUrl;
+
+    private final Skew userSkew;
+
+    private final Skew itemSkew;
+
+    private final Endpoint[] endpoints;
+
+    private final int[] cumulativeWeights;
+
+    /**
+     * @param mix доли эндпоинтов вида item=25,search=15; пустая строка - смесь по умолчанию
+     */
+    Workload(String baseUrl, Skew userSkew, Skew itemSkew, String mix) {
+        this.baseUrl = baseUrl;
+        this.userSkew = userSkew;
+        this.itemSkew = itemSkew;
+
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        if (mix.isBlank()) {
+            for (Endpoint endpoint : Endpoint.values()) {
+                weights.put(endpoint, endpoint.getDefaultWeight());
+            }
+        } else {
+            for (String part : mix.split(",")) {
+                String[] keyAndWeight = part.trim().split("=");
+                weights.put(Endpoint.byKey(keyAndWeight[0]), Integer.parseInt(keyAndWeight[1]));
+            }
+        }
+        weights.values().removeIf(weight -> weight <= 0);
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("В смеси нет ни одного эндпоинта.");
+        }
+
+        endpoints = weights.keySet().toArray(new Endpoint[0]);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += weights.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Endpoint next(SplittableRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Вес за пределами смеси.");
+    }
+
+    Endpoint[] getEndpoints() {
+        return endpoints.clone();
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    long user(SplittableRandom random) {
+        return userSkew.next(random);
+    }
+
+    long item(SplittableRandom random) {
+        return itemSkew.next(random);
+    }
+
+    HttpRequest.Builder get(SplittableRandom random, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", String.valueOf(user(random)))
+                .GET();
+    }
+}
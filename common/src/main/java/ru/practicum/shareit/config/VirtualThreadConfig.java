@@ -0,0 +1,64 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка запросов в виртуальных потоках (shareit.threads.virtual=true).
+ * <p>
+ * Tomcat запускает каждый запрос в новом виртуальном потоке вместо потока из ограниченного пула,
+ * и блокирующие вызовы - запросы к БД на сервере и к серверу ShareIt в шлюзе - выполняются из этих же
+ * потоков. Число одновременно обрабатываемых запросов ограничивает пул соединений
+ * (spring.datasource.hikari.maximum-pool-size на сервере, shareit-server.http.max-total в шлюзе), а не число
+ * потоков. Виртуальные потоки есть в Java 21 и новее; на более ранней JVM приложение в этом режиме
+ * не запустится. Действует только в сервлетном режиме: в неблокирующем режиме шлюза потоки не ждут ответа.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Запросы обрабатываются в виртуальных потоках.");
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor(), вызванный через MethodHandle: проект собирается для Java 11.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        MethodHandle factory;
+        try {
+            factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(String.format(
+                    "Виртуальные потоки недоступны в Java %s, нужна Java 21 или новее.",
+                    Runtime.version().feature()), e);
+        }
+        try {
+            return (ExecutorService) factory.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось создать исполнитель виртуальных потоков.", e);
+        }
+    }
+}
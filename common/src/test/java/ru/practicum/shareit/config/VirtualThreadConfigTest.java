@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadConfigTest {
+
+    private static final int VIRTUAL_THREADS_VERSION = 21;
+
+    @Test
+    void executorRunsTasksOnVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_VERSION);
+
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+        try {
+            Boolean virtual = executor.submit(
+                    () -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())
+            ).get();
+            assertTrue(virtual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void executorIsUnavailableBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < VIRTUAL_THREADS_VERSION);
+
+        assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+    }
+}
@@ -2,14 +2,14 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingParamDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,45 +17,53 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transportFactory) {
+        super(transportFactory.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> addBooking(BookingParamDto bookingDto, Long userId) {
+    public Mono<ResponseEntity<Object>> addBooking(BookingParamDto bookingDto, Long userId) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> approveBooking(Long bookingId, Boolean approved, Long userId) {
+    public Mono<ResponseEntity<Object>> approveBooking(Long bookingId, Boolean approved, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingById(Long bookingId, Long userId) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByUserId(String state, Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    /**
+     * Если передан cursor, сервер возвращает страницу после курсора, а курсор следующей страницы
+     * приходит в заголовке X-Next-Cursor и передаётся клиенту вместе с ответом.
+     */
+    public Mono<ResponseEntity<Object>> getBookingsByUserId(String state, Long userId, Integer from, Integer size,
+                                                      String cursor) {
+        return get(withCursor("?state={state}&from={from}&size={size}", cursor), userId,
+                listingParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> getBookingsItemsByUserId(String state, Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsItemsByUserId(String state, Long userId, Integer from, Integer size,
+                                                           String cursor) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", cursor), userId,
+                listingParameters(state, from, size, cursor));
+    }
+
+    private static String withCursor(String path, String cursor) {
+        return (cursor == null) ? path : path + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> listingParameters(String state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingParamDto;
+import ru.practicum.shareit.booking.exception.BookingWrongStateException;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Обработка запросов бронирований, общая для сервлетного и неблокирующего режимов шлюза: проверка запроса
+ * и обращение к серверу. Контроллеры режимов только ждут ответа ({@link BookingController})
+ * или возвращают его как есть ({@link ReactiveBookingController}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingHandler {
+
+    private final BookingClient bookingClient;
+
+    public Mono<ResponseEntity<Object>> addBooking(BookingParamDto bookingDto, Long userId) {
+        log.info("Получен запрос на добавление вещи пользователем , userId={}.", userId);
+        validateBookingNew(bookingDto);
+        return bookingClient.addBooking(bookingDto, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> approveBooking(Long bookingId, Boolean approved, Long userId) {
+        log.info("Получен запрос на подтверждение или отклонение вещи по запросу bookingId={} от пользователя userId={}.",
+                bookingId, userId);
+        return bookingClient.approveBooking(bookingId, approved, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingById(Long bookingId, Long userId) {
+        log.info("Получен запрос на получение данных о бронировании вещи c bookingId={} от пользователя userId={}.",
+                bookingId, userId);
+        return bookingClient.getBookingById(bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsByUserId(String state, Long userId, Integer from, Integer size,
+                                                            String cursor) {
+        log.info("Получен запрос на получение данных о бронированиях пользователя userId={} с парметром {}.",
+                userId, state);
+        validateState(state);
+        return bookingClient.getBookingsByUserId(state, userId, from, size, cursor);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsItemsByUserId(String state, Long userId, Integer from,
+                                                                 Integer size, String cursor) {
+        log.info("Получен запрос на получение данных о бронировании вещей пользователя userId={} с парметром {}.",
+                userId, state);
+        validateState(state);
+        return bookingClient.getBookingsItemsByUserId(state, userId, from, size, cursor);
+    }
+
+    private static void validateBookingNew(BookingParamDto booking) {
+        if (booking.getStart().isAfter(booking.getEnd())) {
+            throw new ValidationException("Дата начала бронирования больше даты окончания.");
+        }
+    }
+
+    private static void validateState(String state) {
+        try {
+            BookingSearchState.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new BookingWrongStateException(String.format("Unknown state: %s", state));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingParamDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Запросы бронирований в неблокирующем режиме шлюза (spring.main.web-application-type=reactive): ответ сервера
+ * возвращается как {@link Mono}, поток обработки не ждёт его.
+ */
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+public class ReactiveBookingController {
+
+	private final BookingHandler bookingHandler;
+
+	@PostMapping
+	public Mono<ResponseEntity<Object>> addBooking(@RequestBody @Valid BookingParamDto bookingDto,
+													   @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+		return bookingHandler.addBooking(bookingDto, userId);
+	}
+
+	@PatchMapping("/{bookingId}")
+	public Mono<ResponseEntity<Object>> approveBooking(@PathVariable Long bookingId,
+														   @RequestParam Boolean approved,
+														   @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+		return bookingHandler.approveBooking(bookingId, approved, userId);
+	}
+
+	@GetMapping("/{bookingId}")
+	public Mono<ResponseEntity<Object>> getBookingById(@PathVariable Long bookingId,
+														   @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+		return bookingHandler.getBookingById(bookingId, userId);
+	}
+
+	@GetMapping
+	public Mono<ResponseEntity<Object>> getBookingsByUserId(
+			@RequestParam(required = false, defaultValue = "ALL") String state,
+			@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+			@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+			@RequestParam(defaultValue = "10") @Positive Integer size,
+			@RequestParam(required = false) String cursor
+	) {
+		return bookingHandler.getBookingsByUserId(state, userId, from, size, cursor);
+	}
+
+	@GetMapping("/owner")
+	public Mono<ResponseEntity<Object>> getBookingsItemsByUserId(
+			@RequestParam(required = false, defaultValue = "ALL") String state,
+			@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+			@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+			@RequestParam(defaultValue = "10") @Positive Integer size,
+			@RequestParam(required = false) String cursor
+	) {
+		return bookingHandler.getBookingsItemsByUserId(state, userId, from, size, cursor);
+	}
+}
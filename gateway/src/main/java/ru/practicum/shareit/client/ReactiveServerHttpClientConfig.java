@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Пул соединений с сервером для неблокирующего режима шлюза (spring.main.web-application-type=reactive).
+ * <p>
+ * Запросы к шлюзу и к серверу обслуживают несколько потоков event loop Netty. Запросы сверх
+ * max-total ждут соединения в очереди не дольше connection-request-timeout; при переполнении
+ * очереди (max-pending-acquires) запрос сразу завершается ошибкой. Метрики пула публикуются
+ * через actuator как reactor.netty.connection.provider.* с тегом name=shareit-server.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(ServerHttpClientProperties.class)
+public class ReactiveServerHttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(ServerHttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireMaxCount(properties.getMaxPendingAcquires())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ServerTransportFactory serverTransportFactory(WebClient.Builder builder,
+                                                         ConnectionProvider serverConnectionProvider,
+                                                         ServerHttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+        int maxResponseSize = (int) properties.getMaxResponseSize().toBytes();
+
+        return baseUrl -> new WebClientTransport(
+                builder.clone()
+                        .baseUrl(baseUrl)
+                        .clientConnector(connector)
+                        .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseSize))
+                        .build()
+        );
+    }
+}
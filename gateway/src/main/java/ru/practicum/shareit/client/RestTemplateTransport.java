@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Блокирующий транспорт: запрос выполняется в потоке, обрабатывающем запрос к шлюзу. Сервлетные контроллеры
+ * получают ответ через {@code block()}: {@link Mono} здесь выполняется при подписке в том же потоке.
+ */
+public class RestTemplateTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+
+    public RestTemplateTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method,
+                                                 String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpHeaders headers,
+                                                 @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, parameters, new HttpEntity<>(body, headers)));
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method,
+                                        String path,
+                                        @Nullable Map<String, Object> parameters,
+                                        HttpEntity<Object> requestEntity) {
+        // Тело ответа сервера передаётся клиенту как есть, без разбора JSON и повторной сериализации
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ServerResponses.toGatewayResponse(e.getRawStatusCode(),
+                    e.getResponseHeaders(),
+                    e.getResponseBodyAsByteArray());
+        }
+        return ServerResponses.toGatewayResponse(shareitServerResponse.getStatusCodeValue(),
+                shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+}
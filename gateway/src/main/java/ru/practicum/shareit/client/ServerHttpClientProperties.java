@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула HTTP-соединений шлюза с сервером ShareIt.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpClientProperties {
+
+    // Всего соединений в пуле
+    private int maxTotal = 200;
+
+    // Соединений на один адрес; все клиенты шлюза ходят на один сервер, поэтому лимит близок к maxTotal
+    private int maxPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    // Ожидание свободного соединения из пула
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    // Простаивающие дольше соединения закрываются фоновым потоком
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    // Соединение, простоявшее дольше, проверяется перед повторным использованием
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    // Неблокирующий режим: запросы, ожидающие соединения сверх этого числа, сразу завершаются ошибкой
+    private int maxPendingAcquires = 10000;
+
+    // Неблокирующий режим: наибольший размер ответа сервера, собираемого в памяти
+    private DataSize maxResponseSize = DataSize.ofMegabytes(16);
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ответ шлюза из ответа сервера без разбора тела.
+ */
+final class ServerResponses {
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+
+    private ServerResponses() {
+    }
+
+    /**
+     * Успешные ответы и ошибки передаются с заголовками сервера, прочие статусы - только со статусом и телом.
+     */
+    static ResponseEntity<Object> toGatewayResponse(int status, HttpHeaders serverHeaders, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+
+        HttpStatus.Series series = HttpStatus.Series.resolve(status);
+        if (series == HttpStatus.Series.SUCCESSFUL
+                || series == HttpStatus.Series.CLIENT_ERROR
+                || series == HttpStatus.Series.SERVER_ERROR) {
+            responseBuilder.headers(passthroughHeaders(serverHeaders));
+        }
+
+        if (body != null) {
+            return responseBuilder.body(body);
+        }
+
+        return responseBuilder.build();
+    }
+
+    /**
+     * Заголовки ответа сервера без заголовков соединения; длину тела выставляет сам шлюз.
+     */
+    private static HttpHeaders passthroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Способ отправки запроса шлюза на сервер ShareIt.
+ * <p>
+ * Ответ сервера возвращается клиенту шлюза как есть: статус, заголовки содержимого и тело в виде байтов.
+ */
+public interface ServerTransport {
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method,
+                                          String path,
+                                          @Nullable Map<String, Object> parameters,
+                                          HttpHeaders headers,
+                                          @Nullable Object body);
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Создаёт транспорт для клиента шлюза с адресом сервера и префиксом API клиента.
+ */
+public interface ServerTransportFactory {
+
+    ServerTransport create(String baseUrl);
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Неблокирующий транспорт: запрос отправляется через пул соединений reactor-netty,
+ * поток шлюза не ждёт ответа сервера.
+ */
+public class WebClientTransport implements ServerTransport {
+
+    private final WebClient webClient;
+
+    public WebClientTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method,
+                                                 String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpHeaders headers,
+                                                 @Nullable Object body) {
+        return webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .body(body != null ? BodyInserters.fromValue(body) : BodyInserters.empty())
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .map(responseBody -> toGatewayResponse(response, responseBody))
+                        .switchIfEmpty(Mono.fromSupplier(() -> toGatewayResponse(response, null))));
+    }
+
+    private static ResponseEntity<Object> toGatewayResponse(ClientResponse response, @Nullable byte[] body) {
+        return ServerResponses.toGatewayResponse(response.rawStatusCode(), response.headers().asHttpHeaders(), body);
+    }
+}
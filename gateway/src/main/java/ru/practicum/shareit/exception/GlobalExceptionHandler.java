@@ -5,6 +5,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import javax.validation.ConstraintViolationException;
 
@@ -16,4 +18,11 @@ public class GlobalExceptionHandler {
     public ErrorResponse handleBookingWrongStateException(final ConstraintViolationException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    // Сервер недоступен или в пуле нет свободного соединения и очередь ожидания переполнена
+    @ExceptionHandler({ResourceAccessException.class, WebClientRequestException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServerUnavailable(final RuntimeException e) {
+        return new ErrorResponse(e.getMessage());
+    }
 }
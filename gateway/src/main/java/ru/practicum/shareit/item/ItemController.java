@@ -1,11 +1,10 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -14,36 +13,36 @@ import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
 
-@Slf4j
+/**
+ * Запросы вещей в сервлетном режиме шлюза: ответ сервера ожидается в потоке запроса,
+ * поэтому асинхронная обработка Spring MVC не включается.
+ */
 @Validated
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
 
-    private final ItemClient itemClient;
+    private final ItemHandler itemHandler;
 
     @PostMapping
     public ResponseEntity<Object> addItem(@RequestBody ItemDto itemDto,
-                                           @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на добавление вещи.");
-        validateItemNew(itemDto);
-        return itemClient.addItem(itemDto, userId);
+                                     @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.addItem(itemDto, userId).block();
     }
 
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestBody ItemDto itemDto,
-                                              @PathVariable Long itemId,
-                                              @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на редактирование вещи, itemId={}, userId={}", itemId, userId);
-        return itemClient.updateItem(itemDto, itemId, userId);
+                                        @PathVariable Long itemId,
+                                        @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.updateItem(itemDto, itemId, userId).block();
     }
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@PathVariable Long itemId,
-                                               @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на получение вещи, itemId={}", itemId);
-        return itemClient.getItemById(itemId, userId);
+                                         @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.getItemById(itemId, userId).block();
     }
 
     @GetMapping()
@@ -51,8 +50,7 @@ public class ItemController {
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "10") @Positive Integer size,
             @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на получение вещей пользователя, userId={}", userId);
-        return itemClient.getItemsByUserId(userId, from, size);
+        return itemHandler.getItemsByUserId(userId, from, size).block();
     }
 
     @GetMapping("/search")
@@ -61,27 +59,13 @@ public class ItemController {
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "10") @Positive Integer size
     ) {
-        log.info("Получен запрос на поиск вещей, text={}", text);
-        return itemClient.searchItems(text, from, size);
+        return itemHandler.searchItems(text, from, size).block();
     }
 
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@RequestBody @Valid CommentDto commentDto,
-                                                 @PathVariable Long itemId,
-                                                 @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на добавление комментария, itemId={}, userId={}", itemId, userId);
-        return itemClient.addComment(commentDto, itemId, userId);
-    }
-
-    private void validateItemNew(ItemDto item) {
-        if (item.getName() == null || item.getName().isBlank()) {
-            throw new ValidationException("Значение name не задано или пустое.");
-        }
-        if (item.getDescription() == null || item.getDescription().isBlank()) {
-            throw new ValidationException("Значение description не задано или пустое.");
-        }
-        if (item.getAvailable() == null) {
-            throw new ValidationException("Значение available = null.");
-        }
+                                           @PathVariable Long itemId,
+                                           @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.addComment(commentDto, itemId, userId).block();
     }
 }
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Обработка запросов вещей, общая для сервлетного и неблокирующего режимов шлюза: проверка запроса
+ * и обращение к серверу. Контроллеры режимов только ждут ответа ({@link ItemController})
+ * или возвращают его как есть ({@link ReactiveItemController}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemHandler {
+
+    // Длины столбцов items.name и items.description на сервере
+    static final int NAME_MAX_LENGTH = 50;
+
+    static final int DESCRIPTION_MAX_LENGTH = 255;
+
+    private final ItemClient itemClient;
+
+    public Mono<ResponseEntity<Object>> addItem(ItemDto itemDto, Long userId) {
+        log.info("Получен запрос на добавление вещи.");
+        validateItemNew(itemDto);
+        return itemClient.addItem(itemDto, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(ItemDto itemDto, Long itemId, Long userId) {
+        log.info("Получен запрос на редактирование вещи, itemId={}, userId={}", itemId, userId);
+        return itemClient.updateItem(itemDto, itemId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemById(Long itemId, Long userId) {
+        log.info("Получен запрос на получение вещи, itemId={}", itemId);
+        return itemClient.getItemById(itemId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemsByUserId(Long userId, Integer from, Integer size) {
+        log.info("Получен запрос на получение вещей пользователя, userId={}", userId);
+        return itemClient.getItemsByUserId(userId, from, size);
+    }
+
+    public Mono<ResponseEntity<Object>> searchItems(String text, Integer from, Integer size) {
+        log.info("Получен запрос на поиск вещей, text={}", text);
+        return itemClient.searchItems(text, from, size);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(CommentDto commentDto, Long itemId, Long userId) {
+        log.info("Получен запрос на добавление комментария, itemId={}, userId={}", itemId, userId);
+        return itemClient.addComment(commentDto, itemId, userId);
+    }
+
+    /**
+     * Проверка одной вещи, общая для добавления вещи и загрузки списка вещей ({@link ItemImporter}).
+     */
+    static void validateItemNew(ItemDto item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            throw new ValidationException("Значение name не задано или пустое.");
+        }
+        if (item.getName().length() > NAME_MAX_LENGTH) {
+            throw new ValidationException(String.format("Значение name длиннее %d символов.", NAME_MAX_LENGTH));
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            throw new ValidationException("Значение description не задано или пустое.");
+        }
+        if (item.getDescription().length() > DESCRIPTION_MAX_LENGTH) {
+            throw new ValidationException(
+                    String.format("Значение description длиннее %d символов.", DESCRIPTION_MAX_LENGTH));
+        }
+        if (item.getAvailable() == null) {
+            throw new ValidationException("Значение available = null.");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Загрузка списка вещей в сервлетном режиме шлюза.
+ * <p>
+ * Тело запроса - JSON-массив вещей или NDJSON (по вещи в строке). Тело читается парсером Jackson по одной
+ * вещи, результаты отдаются в ответ NDJSON по мере загрузки, см. {@link ItemImporter}.
+ * <p>
+ * Ответ пишется, пока читается тело, поэтому запрос ограничен своим временем shareit.items.import.timeout,
+ * а не общим временем асинхронных запросов Spring MVC.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ItemImportController {
+
+    private final ItemImporter itemImporter;
+
+    private final ObjectReader itemReader;
+
+    private final Duration timeout;
+
+    public ItemImportController(ItemImporter itemImporter,
+                                ObjectMapper objectMapper,
+                                @Value("${shareit.items.import.timeout:30m}") Duration timeout) {
+        this.itemImporter = itemImporter;
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.timeout = timeout;
+    }
+
+    @PostMapping(path = "/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> importItems(HttpServletRequest request,
+                                                           @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.info("Получен запрос на загрузку вещей, userId={}", userId);
+        // Корневой массив MappingIterator перебирает по элементам, NDJSON - по значениям верхнего уровня
+        Flux<ItemDto> itemDtos = Flux.using(
+                () -> itemReader.<ItemDto>readValues(request.getInputStream()),
+                iterator -> Flux.fromIterable(() -> iterator),
+                ItemImportController::close);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        // Тело читается и вещи отправляются на сервер вне потока запроса, он освобождается сразу
+        Disposable subscription = itemImporter.importItems(itemDtos, userId)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(result -> send(emitter, result), emitter::completeWithError, emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
+    private static void send(ResponseBodyEmitter emitter, ItemImportResult result) {
+        try {
+            emitter.send(result, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+        } catch (IOException e) {
+            // Клиент отключился: ошибка отменяет загрузку
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(MappingIterator<ItemDto> iterator) {
+        try {
+            iterator.close();
+        } catch (IOException e) {
+            log.debug("Не удалось закрыть тело запроса загрузки вещей.", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Загрузка списка вещей владельца потоком.
+ * <p>
+ * Вещи читаются из тела запроса по одной, каждая проверяется так же, как при добавлении одной вещи.
+ * Прошедшие проверку вещи отправляются на сервер пакетами по shareit.items.import.batch-size, следующий
+ * пакет собирается только после ответа на предыдущий, поэтому память шлюза не зависит от размера загрузки.
+ * Результаты возвращаются в порядке вещей по мере ответов сервера. Если чтение загрузки или обращение
+ * к серверу прервалось, последним результатом приходит причина остановки с номером первой вещи без результата.
+ */
+@Slf4j
+@Service
+public class ItemImporter {
+
+    private static final TypeReference<List<ItemImportResult>> RESULTS = new TypeReference<>() {
+    };
+
+    private final ItemClient itemClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final int batchSize;
+
+    public ItemImporter(ItemClient itemClient,
+                        ObjectMapper objectMapper,
+                        @Value("${shareit.items.import.batch-size:500}") int batchSize) {
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public Flux<ItemImportResult> importItems(Flux<ItemDto> itemDtos, Long userId) {
+        return Flux.defer(() -> {
+            AtomicLong nextRow = new AtomicLong();
+            return itemDtos.index()
+                    .buffer(batchSize)
+                    // Ошибка чтения следующих вещей не отменяет уже отправленный пакет: его результаты нужны клиенту
+                    .concatMapDelayError(batch -> importBatch(batch, userId), true, 1)
+                    .doOnNext(result -> nextRow.set(result.getRow() + 1))
+                    .onErrorResume(e -> {
+                        log.warn("Загрузка вещей остановлена, userId={}, row={}", userId, nextRow.get(), e);
+                        return Mono.just(new ItemImportResult(nextRow.get(), null,
+                                "Загрузка остановлена: " + e.getMessage()));
+                    });
+        });
+    }
+
+    private Flux<ItemImportResult> importBatch(List<Tuple2<Long, ItemDto>> batch, Long userId) {
+        ItemImportResult[] results = new ItemImportResult[batch.size()];
+        List<Integer> validPositions = new ArrayList<>(batch.size());
+        List<ItemDto> validItems = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Tuple2<Long, ItemDto> row = batch.get(i);
+            try {
+                ItemHandler.validateItemNew(row.getT2());
+                validPositions.add(i);
+                validItems.add(row.getT2());
+            } catch (ValidationException e) {
+                results[i] = new ItemImportResult(row.getT1(), null, e.getMessage());
+            }
+        }
+        if (validItems.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+        return itemClient.addItems(validItems, userId)
+                .flatMapMany(response -> {
+                    List<ItemImportResult> serverResults = toServerResults(response, validItems.size());
+                    for (int i = 0; i < validPositions.size(); i++) {
+                        int position = validPositions.get(i);
+                        ItemImportResult result = serverResults.get(i);
+                        result.setRow(batch.get(position).getT1());
+                        results[position] = result;
+                    }
+                    return Flux.fromArray(results);
+                });
+    }
+
+    /**
+     * Результаты сервера в порядке отправленных вещей; при ошибке сервер отклоняет весь пакет,
+     * и причина записывается в результат каждой вещи пакета.
+     */
+    private List<ItemImportResult> toServerResults(ResponseEntity<Object> response, int count) {
+        byte[] body = (byte[]) response.getBody();
+        try {
+            if (response.getStatusCode().is2xxSuccessful() && body != null) {
+                return objectMapper.readValue(body, RESULTS);
+            }
+            String error = body != null
+                    ? objectMapper.readTree(body).path("error").asText(null)
+                    : null;
+            return rejected(count, error != null
+                    ? error
+                    : String.format("Сервер ответил статусом %d.", response.getStatusCodeValue()));
+        } catch (IOException e) {
+            return rejected(count, String.format("Сервер ответил статусом %d.", response.getStatusCodeValue()));
+        }
+    }
+
+    private static List<ItemImportResult> rejected(int count, String error) {
+        ItemImportResult[] results = new ItemImportResult[count];
+        for (int i = 0; i < count; i++) {
+            results[i] = new ItemImportResult(0, null, error);
+        }
+        return Arrays.asList(results);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+
+/**
+ * Запросы вещей в неблокирующем режиме шлюза (spring.main.web-application-type=reactive): ответ сервера
+ * возвращается как {@link Mono}, поток обработки не ждёт его.
+ */
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class ReactiveItemController {
+
+    private final ItemHandler itemHandler;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addItem(@RequestBody ItemDto itemDto,
+                                           @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.addItem(itemDto, userId);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> updateItem(@RequestBody ItemDto itemDto,
+                                              @PathVariable Long itemId,
+                                              @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.updateItem(itemDto, itemId, userId);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable Long itemId,
+                                               @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.getItemById(itemId, userId);
+    }
+
+    @GetMapping()
+    public Mono<ResponseEntity<Object>> getItemsByUserId(
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.getItemsByUserId(userId, from, size);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> searchItems(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size
+    ) {
+        return itemHandler.searchItems(text, from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Object>> addComment(@RequestBody @Valid CommentDto commentDto,
+                                                 @PathVariable Long itemId,
+                                                 @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemHandler.addComment(commentDto, itemId, userId);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+
+/**
+ * Загрузка списка вещей в неблокирующем режиме шлюза (spring.main.web-application-type=reactive).
+ * <p>
+ * JSON-массив или NDJSON декодируется WebFlux в поток вещей по мере поступления тела,
+ * результаты отдаются в ответ NDJSON, см. {@link ItemImporter}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/items")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemImportController {
+
+    private final ItemImporter itemImporter;
+
+    @PostMapping(path = "/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemImportResult> importItems(@RequestBody Flux<ItemDto> itemDtos,
+                                              @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.info("Получен запрос на загрузку вещей, userId={}", userId);
+        return itemImporter.importItems(itemDtos, userId);
+    }
+}
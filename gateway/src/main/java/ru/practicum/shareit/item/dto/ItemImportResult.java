@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат загрузки одной вещи: номер вещи в загрузке с нуля и id созданной вещи или причина отказа.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+
+    private long row;
+    private Long id;
+    private String error;
+}
@@ -2,14 +2,14 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,32 +18,31 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transportFactory) {
+        super(transportFactory.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> addItemRequest(ItemRequestDto itemRequestDto, Long userId) {
+    public Mono<ResponseEntity<Object>> addItemRequest(ItemRequestDto itemRequestDto, Long userId) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getItemRequests(Long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestsFromOtherUsers(Integer from, Integer size, Long userId) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getItemRequestsFromOtherUsers(Integer from, Integer size, Long userId,
+                                                                String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/all?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/all?from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long requestId, Long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long requestId, Long userId) {
         return get("/" + requestId, userId);
     }
 }
@@ -1,7 +1,7 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,41 +11,42 @@ import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
-@Slf4j
+/**
+ * Запросы на вещи в сервлетном режиме шлюза: ответ сервера ожидается в потоке запроса,
+ * поэтому асинхронная обработка Spring MVC не включается.
+ */
 @RequiredArgsConstructor
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Validated
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
 
-    private final ItemRequestClient itemRequestClient;
+    private final ItemRequestHandler itemRequestHandler;
 
     @PostMapping
     public ResponseEntity<Object> addItemRequest(@RequestBody @Valid ItemRequestDto itemRequestDto,
-                                                         @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на добавление запроса на вещь.");
-        return itemRequestClient.addItemRequest(itemRequestDto, userId);
+                                                   @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemRequestHandler.addItemRequest(itemRequestDto, userId).block();
     }
 
     @GetMapping()
     public ResponseEntity<Object> getItemRequests(@RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на получение запросов на вещи, userId={}", userId);
-        return itemRequestClient.getItemRequests(userId);
+        return itemRequestHandler.getItemRequests(userId).block();
     }
 
     @GetMapping("/all")
     public ResponseEntity<Object> getItemRequestsFromOtherUsers(
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "10") @Positive Integer size,
-            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на получение запросов на вещи других пользователей, from = {}, size = {}", from, size);
-        return itemRequestClient.getItemRequestsFromOtherUsers(from, size, userId);
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+            @RequestParam(required = false) String cursor) {
+        return itemRequestHandler.getItemRequestsFromOtherUsers(from, size, userId, cursor).block();
     }
 
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getItemRequestById(@PathVariable Long requestId,
-                                                             @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Получен запрос на получение запроса на вещь, requestId={}", requestId);
-        return itemRequestClient.getItemRequestById(requestId, userId);
+                                                       @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemRequestHandler.getItemRequestById(requestId, userId).block();
     }
 }
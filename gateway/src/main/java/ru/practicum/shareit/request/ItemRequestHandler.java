@@ -0,0 +1,42 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+/**
+ * Обработка запросов на вещи, общая для сервлетного и неблокирующего режимов шлюза. Контроллеры режимов
+ * только ждут ответа ({@link ItemRequestController}) или возвращают его как есть
+ * ({@link ReactiveItemRequestController}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemRequestHandler {
+
+    private final ItemRequestClient itemRequestClient;
+
+    public Mono<ResponseEntity<Object>> addItemRequest(ItemRequestDto itemRequestDto, Long userId) {
+        log.info("Получен запрос на добавление запроса на вещь.");
+        return itemRequestClient.addItemRequest(itemRequestDto, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemRequests(Long userId) {
+        log.info("Получен запрос на получение запросов на вещи, userId={}", userId);
+        return itemRequestClient.getItemRequests(userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemRequestsFromOtherUsers(Integer from, Integer size, Long userId,
+                                                                      String cursor) {
+        log.info("Получен запрос на получение запросов на вещи других пользователей, from = {}, size = {}", from, size);
+        return itemRequestClient.getItemRequestsFromOtherUsers(from, size, userId, cursor);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long requestId, Long userId) {
+        log.info("Получен запрос на получение запроса на вещь, requestId={}", requestId);
+        return itemRequestClient.getItemRequestById(requestId, userId);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Запросы на вещи в неблокирующем режиме шлюза (spring.main.web-application-type=reactive): ответ сервера
+ * возвращается как {@link Mono}, поток обработки не ждёт его.
+ */
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Validated
+@RequestMapping(path = "/requests")
+public class ReactiveItemRequestController {
+
+    private final ItemRequestHandler itemRequestHandler;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addItemRequest(@RequestBody @Valid ItemRequestDto itemRequestDto,
+                                                         @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemRequestHandler.addItemRequest(itemRequestDto, userId);
+    }
+
+    @GetMapping()
+    public Mono<ResponseEntity<Object>> getItemRequests(@RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemRequestHandler.getItemRequests(userId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Object>> getItemRequestsFromOtherUsers(
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+            @RequestParam(required = false) String cursor) {
+        return itemRequestHandler.getItemRequestsFromOtherUsers(from, size, userId, cursor);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Object>> getItemRequestById(@PathVariable Long requestId,
+                                                             @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return itemRequestHandler.getItemRequestById(requestId, userId);
+    }
+}
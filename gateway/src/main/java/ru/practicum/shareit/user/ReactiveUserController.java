@@ -0,0 +1,47 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * Запросы пользователей в неблокирующем режиме шлюза (spring.main.web-application-type=reactive): ответ сервера
+ * возвращается как {@link Mono}, поток обработки не ждёт его.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    private final UserHandler userHandler;
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getUsers() {
+        return userHandler.getUsers();
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
+        return userHandler.getUserById(userId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody UserDto userDto) {
+        return userHandler.addUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody UserDto userDto, @PathVariable Long userId) {
+        return userHandler.updateUser(userDto, userId);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable Long userId) {
+        return userHandler.deleteUserById(userId);
+    }
+
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.regex.Pattern;
+
+/**
+ * Обработка запросов пользователей, общая для сервлетного и неблокирующего режимов шлюза: проверка запроса
+ * и обращение к серверу. Контроллеры режимов только ждут ответа ({@link UserController})
+ * или возвращают его как есть ({@link ReactiveUserController}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserHandler {
+
+    private static final Pattern EMAIL = Pattern.compile("^(.+)@(\\S+)$");
+
+    private final UserClient userClient;
+
+    public Mono<ResponseEntity<Object>> getUsers() {
+        log.info("Получен запрос на получение всех пользователей.");
+        return userClient.getUsers();
+    }
+
+    public Mono<ResponseEntity<Object>> getUserById(Long userId) {
+        log.info("Получен запрос на получение пользователя с id = {}.", userId);
+        return userClient.getUserById(userId);
+    }
+
+    public Mono<ResponseEntity<Object>> addUser(UserDto userDto) {
+        log.info("Получен запрос на добавление пользователя.");
+        validateNewUser(userDto);
+        return userClient.addUser(userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> updateUser(UserDto userDto, Long userId) {
+        log.info("Получен запрос на обновление пользователя с id = {}.", userId);
+        validateUserFields(userDto);
+        return userClient.updateUser(userDto, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> deleteUserById(Long userId) {
+        log.info("Получен запрос на удаление пользователя с id = {}.", userId);
+        return userClient.deleteUserById(userId);
+    }
+
+    private static void validateNewUser(UserDto user) {
+        // Проверяем наличие обязательных полей
+        if (user.getEmail() == null) {
+            throw new ValidationException("Значение email = null.");
+        }
+        // Проверяем поля на форматирование
+        validateUserFields(user);
+    }
+
+    private static void validateUserFields(UserDto user) {
+        if (user.getEmail() != null && !EMAIL.matcher(user.getEmail()).matches()) {
+            throw new ValidationException("Значение email не валидно.");
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingHandler;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemHandler;
+import ru.practicum.shareit.item.ItemImporter;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.ItemRequestHandler;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки и проксирование запросов шлюза, общие для сервлетного и неблокирующего режимов.
+ */
+@Import({UserClient.class, BookingClient.class, ItemClient.class, ItemRequestClient.class,
+        UserHandler.class, BookingHandler.class, ItemHandler.class, ItemRequestHandler.class, ItemImporter.class,
+        GatewayControllerCases.TransportConfig.class})
+abstract class GatewayControllerCases {
+
+    @Autowired
+    protected RecordingServerTransport transport;
+
+    protected abstract WebTestClient client();
+
+    @BeforeEach
+    void resetTransport() {
+        transport.reset();
+    }
+
+    @Test
+    void getUserPassesServerResponseThrough() {
+        transport.respond(HttpStatus.OK, "{\"id\":1,\"name\":\"User1\",\"email\":\"user1@mail.ru\"}");
+
+        client().get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json("{\"id\":1,\"name\":\"User1\",\"email\":\"user1@mail.ru\"}");
+
+        RecordingServerTransport.Request request = single();
+        assertEquals(HttpMethod.GET, request.method);
+        assertEquals("http://localhost:9090/users/1", request.url);
+    }
+
+    @Test
+    void getUserPassesServerErrorStatusThrough() {
+        transport.respond(HttpStatus.NOT_FOUND, "{\"error\":\"Пользователь не найден.\"}");
+
+        client().get().uri("/users/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Пользователь не найден.");
+    }
+
+    @Test
+    void getItemForwardsUserHeader() {
+        client().get().uri("/items/5")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk();
+
+        RecordingServerTransport.Request request = single();
+        assertEquals("http://localhost:9090/items/5", request.url);
+        assertEquals("7", request.headers.getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void getBookingsForwardsParameters() {
+        client().get().uri("/bookings?state=PAST&from=10&size=5")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk();
+
+        RecordingServerTransport.Request request = single();
+        assertEquals("PAST", request.parameters.get("state"));
+        assertEquals(10, request.parameters.get("from"));
+        assertEquals(5, request.parameters.get("size"));
+    }
+
+    @Test
+    void addUserWithInvalidEmail() {
+        client().post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"User1\",\"email\":\"user1.mail.ru\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Значение email не валидно.");
+
+        assertNoServerRequests();
+    }
+
+    @Test
+    void addUserWithoutEmail() {
+        client().post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"User1\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Значение email = null.");
+
+        assertNoServerRequests();
+    }
+
+    @Test
+    void getBookingsWithUnknownState() {
+        client().get().uri("/bookings/owner?state=UNSUPPORTED")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown state: UNSUPPORTED");
+
+        assertNoServerRequests();
+    }
+
+    @Test
+    void getBookingsWithNegativeFrom() {
+        client().get().uri("/bookings?from=-1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertNoServerRequests();
+    }
+
+    @Test
+    void addBookingWithStartAfterEnd() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        client().post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemId\":1,\"start\":\"" + start + "\",\"end\":\"" + start.minusDays(1) + "\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Дата начала бронирования больше даты окончания.");
+
+        assertNoServerRequests();
+    }
+
+    @Test
+    void addItemWithoutName() {
+        client().post().uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"description\":\"Description\",\"available\":true}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Значение name не задано или пустое.");
+
+        assertNoServerRequests();
+    }
+
+    @Test
+    void getItemRequestsWithZeroSize() {
+        client().get().uri("/requests/all?size=0")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertNoServerRequests();
+    }
+
+    @Test
+    void importItemsStreamsResults() {
+        transport.respond(HttpStatus.OK, "[{\"row\":0,\"id\":10}]");
+
+        String results = client().post().uri("/items/import")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"Item\",\"description\":\"Description\",\"available\":true}\n" +
+                        "{\"description\":\"Description\",\"available\":true}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals("{\"row\":0,\"id\":10}\n" +
+                "{\"row\":1,\"error\":\"Значение name не задано или пустое.\"}\n", results);
+        assertEquals("http://localhost:9090/items/batch", single().url);
+    }
+
+    @Test
+    void importItemsRejectsOverlongRowOnly() {
+        transport.respond(HttpStatus.OK, "[{\"row\":0,\"id\":10},{\"row\":1,\"id\":11}]");
+
+        String results = client().post().uri("/items/import")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"Item0\",\"description\":\"Description\",\"available\":true}\n" +
+                        "{\"name\":\"" + "Item".repeat(13) + "\",\"description\":\"Description\",\"available\":true}\n" +
+                        "{\"name\":\"Item2\",\"description\":\"Description\",\"available\":true}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals("{\"row\":0,\"id\":10}\n" +
+                "{\"row\":1,\"error\":\"Значение name длиннее 50 символов.\"}\n" +
+                "{\"row\":2,\"id\":11}\n", results);
+        assertEquals(2, ((List<?>) single().body).size());
+    }
+
+    private RecordingServerTransport.Request single() {
+        List<RecordingServerTransport.Request> requests = transport.getRequests();
+        assertEquals(1, requests.size());
+        return requests.get(0);
+    }
+
+    private void assertNoServerRequests() {
+        assertTrue(transport.getRequests().isEmpty());
+    }
+
+    @TestConfiguration
+    static class TransportConfig {
+
+        @Bean
+        RecordingServerTransport serverTransportFactory() {
+            return new RecordingServerTransport();
+        }
+    }
+}
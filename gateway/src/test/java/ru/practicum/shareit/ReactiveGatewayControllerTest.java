@@ -0,0 +1,23 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.booking.ReactiveBookingController;
+import ru.practicum.shareit.item.ReactiveItemController;
+import ru.practicum.shareit.item.ReactiveItemImportController;
+import ru.practicum.shareit.request.ReactiveItemRequestController;
+import ru.practicum.shareit.user.ReactiveUserController;
+
+@WebFluxTest(controllers = {ReactiveUserController.class, ReactiveBookingController.class,
+        ReactiveItemController.class, ReactiveItemRequestController.class, ReactiveItemImportController.class})
+class ReactiveGatewayControllerTest extends GatewayControllerCases {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Override
+    protected WebTestClient client() {
+        return webTestClient;
+    }
+}
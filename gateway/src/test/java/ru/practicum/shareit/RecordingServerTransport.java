@@ -0,0 +1,77 @@
+package ru.practicum.shareit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Транспорт клиентов шлюза без сервера: запоминает запросы и отвечает заданным ответом.
+ */
+public class RecordingServerTransport implements ServerTransportFactory {
+
+    private final List<Request> requests = new ArrayList<>();
+
+    private ResponseEntity<Object> response = jsonResponse(HttpStatus.OK, "{}");
+
+    @Override
+    public ServerTransport create(String baseUrl) {
+        return (method, path, parameters, headers, body) -> Mono.fromCallable(() -> {
+            requests.add(new Request(method, baseUrl + path, parameters, headers, body));
+            return response;
+        });
+    }
+
+    public void respond(HttpStatus status, String json) {
+        response = jsonResponse(status, json);
+    }
+
+    public List<Request> getRequests() {
+        return requests;
+    }
+
+    public void reset() {
+        requests.clear();
+        respond(HttpStatus.OK, "{}");
+    }
+
+    private static ResponseEntity<Object> jsonResponse(HttpStatus status, String json) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static class Request {
+
+        public final HttpMethod method;
+
+        public final String url;
+
+        @Nullable
+        public final Map<String, Object> parameters;
+
+        public final HttpHeaders headers;
+
+        @Nullable
+        public final Object body;
+
+        Request(HttpMethod method, String url, @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                @Nullable Object body) {
+            this.method = method;
+            this.url = url;
+            this.parameters = parameters;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.ItemImportController;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.user.UserController;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(
+        controllers = {UserController.class, BookingController.class, ItemController.class,
+                ItemRequestController.class, ItemImportController.class},
+        properties = "shareit.items.import.timeout=5m")
+class ServletGatewayControllerTest extends GatewayControllerCases {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Override
+    protected WebTestClient client() {
+        return MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Test
+    void proxyRequestDoesNotStartAsyncProcessing() throws Exception {
+        mockMvc.perform(get("/users/1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void importItemsUsesOwnTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", "1")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"description\":\"Description\",\"available\":true}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(Duration.ofMinutes(5).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+    }
+}
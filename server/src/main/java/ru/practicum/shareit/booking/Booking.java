@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -13,14 +15,16 @@ import java.time.LocalDateTime;
  * TODO Sprint add-bookings.
  */
 
-@Data
-@AllArgsConstructor
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @Entity
 @Table(name = "bookings", schema = "public")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date")
@@ -29,13 +33,65 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end;
 
-    @ManyToOne
+    // Вещь и арендатор ленивые: toString и equals их не затрагивают, чтобы не загружать связи
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", referencedColumnName = "id")
+    @ToString.Exclude
     private Item item;
-    @ManyToOne
+    // Копия items.owner_id: списки владельца читаются по индексу bookings без соединения с вещами.
+    // Составной внешний ключ (item_id, owner_id) не даёт сохранить чужого владельца, а при смене
+    // владельца вещи значение обновляется каскадом
+    @Column(name = "owner_id", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long owner;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", referencedColumnName = "id")
+    @ToString.Exclude
     private User booker;
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    // Задаётся при сохранении, дальше её меняют только пакетные update: сохранение бронирования
+    // при подтверждении не должно вернуть фазу, которую уже сдвинул BookingPhaseSweeper
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    @Setter(AccessLevel.NONE)
+    private BookingPhase phase;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        setItem(item);
+        this.booker = booker;
+        this.status = status;
+    }
+
+    @PrePersist
+    void fillPhase() {
+        phase = BookingPhase.of(start, end, LocalDateTime.now());
+    }
+
+    public void setItem(Item item) {
+        this.item = item;
+        this.owner = item != null ? item.getOwner() : null;
+    }
+
+    // Равенство по id: сохранённое бронирование равно своему прокси, несохранённое - только самому себе
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Booking)) {
+            return false;
+        }
+        return id != null && id.equals(((Booking) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Booking.class.hashCode();
+    }
 }
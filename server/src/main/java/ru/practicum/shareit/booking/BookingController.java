@@ -7,7 +7,9 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingParamDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -52,10 +54,14 @@ public class BookingController {
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestHeader(name = "X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "10") @Positive Integer size
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) String cursor
     ) {
         log.info("Получен запрос на получение данных о бронированиях пользователя userId={} с парметром {}.",
                 userId, state);
+        if (cursor != null) {
+            return toResponse(bookingService.getBookingsByUserIdFromCursor(state, userId, cursor, size));
+        }
         return ResponseEntity.ok(bookingService.getBookingsByUserId(state, userId, from, size));
     }
 
@@ -64,10 +70,22 @@ public class BookingController {
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestHeader(name = "X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "10") @Positive Integer size
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) String cursor
     ) {
         log.info("Получен запрос на получение данных о бронировании вещей пользователя userId={} с парметром {}.",
                 userId, state);
+        if (cursor != null) {
+            return toResponse(bookingService.getBookingsItemsByUserIdFromCursor(state, userId, cursor, size));
+        }
         return ResponseEntity.ok(bookingService.getBookingsItemsByUserId(state, userId, from, size));
     }
+
+    private ResponseEntity<List<BookingResultDto>> toResponse(BookingSliceDto slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getBookings());
+    }
 }
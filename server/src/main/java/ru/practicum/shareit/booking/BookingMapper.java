@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
 import ru.practicum.shareit.booking.dto.BookingParamDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
 
@@ -10,6 +11,8 @@ import ru.practicum.shareit.booking.dto.BookingResultDto;
 public interface BookingMapper {
     BookingResultDto toBookingDto(Booking booking);
 
+    BookingResultDto toBookingDto(ArchivedBooking booking);
+
     @Mapping(target = "item.id", source = "itemId")
     @Mapping(target = "booker.id", source = "bookerId")
     Booking toBooking(BookingParamDto bookingDto);
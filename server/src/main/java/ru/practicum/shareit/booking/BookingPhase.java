@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Положение бронирования во времени: ещё не началось, идёт или закончилось.
+ * <p>
+ * Хранится в бронировании, чтобы списки CURRENT, PAST и FUTURE выбирались по равенству, а не по диапазонам
+ * дат начала и окончания. Фаза задаётся при сохранении и сдвигается BookingPhaseSweeper.
+ */
+public enum BookingPhase {
+    FUTURE, CURRENT, PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime date) {
+        if (end != null && end.isBefore(date)) {
+            return PAST;
+        }
+        if (start != null && !start.isAfter(date)) {
+            return CURRENT;
+        }
+        return FUTURE;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование, перенесённое {@link BookingArchiver} в архив: закончилось больше
+ * shareit.bookings.archive.after-days дней назад. Строки архива только добавляются переносом и читаются.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "bookings_archive", schema = "public")
+public class ArchivedBooking {
+    @Id
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    // Как и в Booking, ленивые вещь и арендатор не участвуют в toString и equals
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", referencedColumnName = "id")
+    @ToString.Exclude
+    private Item item;
+    @Column(name = "owner_id")
+    private Long owner;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id", referencedColumnName = "id")
+    @ToString.Exclude
+    private User booker;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArchivedBooking)) {
+            return false;
+        }
+        return id != null && id.equals(((ArchivedBooking) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return ArchivedBooking.class.hashCode();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+
+/**
+ * Пользователи, у которых есть бронирования в архиве: списки остальных пользователей архив не читают.
+ * <p>
+ * Отметку ставит перенос пакета в архив, и она не снимается. Поэтому кэшируются только положительные ответы:
+ * устареть они не могут, а отметку, поставленную переносом на любом экземпляре сервера, следующая проверка
+ * видит сразу, без сброса кэша.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchivedBookingUsers {
+
+    public static final String CACHE_NAME = "archived-booking-users";
+
+    private final BookingArchiveRepository archiveRepository;
+
+    @Cacheable(cacheNames = CACHE_NAME, unless = "!#result")
+    public boolean contains(Long userId) {
+        return archiveRepository.existsUserById(userId);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фоновый перенос в архив бронирований, закончившихся больше shareit.bookings.archive.after-days дней назад.
+ * <p>
+ * Бронирования переносятся пакетами по shareit.bookings.archive.sweep-batch-size, каждый пакет - отдельная
+ * транзакция. Обход повторяется через shareit.bookings.archive.sweep-delay миллисекунд после предыдущего.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingArchiver {
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingArchiveRepository archiveRepository;
+
+    private final int afterDays;
+
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingArchiveRepository archiveRepository,
+                           @Value("${shareit.bookings.archive.after-days:180}") int afterDays,
+                           @Value("${shareit.bookings.archive.sweep-batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.archiveRepository = archiveRepository;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.archive.sweep-delay:3600000}")
+    public void sweep() {
+        int total;
+        try {
+            total = archive(LocalDateTime.now());
+        } catch (ConcurrencyFailureException e) {
+            // Пакет не перенесён, его бронирования будут перенесены при следующем обходе
+            log.debug("Бронирования не перенесены в архив из-за блокировки: {}.", e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            log.debug("Перенесено в архив бронирований: {}.", total);
+        }
+    }
+
+    /**
+     * Переносит в архив все бронирования, закончившиеся больше after-days дней до date.
+     *
+     * @return число перенесённых бронирований
+     */
+    public int archive(LocalDateTime date) {
+        LocalDateTime cutoff = date.minusDays(afterDays);
+        PageRequest batch = PageRequest.of(0, batchSize);
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = bookingRepository.findArchivableIds(cutoff, batch);
+            if (!ids.isEmpty()) {
+                total += archiveRepository.moveFromBookings(ids);
+            }
+        } while (ids.size() == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Страницы списков бронирований, которые могут продолжаться в архиве.
+ * <p>
+ * В архиве только бронирования, закончившиеся больше shareit.bookings.archive.after-days дней назад, а значит
+ * и начавшиеся раньше этой границы. Если страница BOOKINGS заполнена и её последняя строка начинается не раньше
+ * границы, все строки архива идут после неё в порядке start desc, id desc, и архив не читается. Не читается он
+ * и для пользователей без перенесённых бронирований. Иначе страница собирается слиянием строк обеих таблиц.
+ * Граница считается по текущему after-days, поэтому его можно только уменьшать: после увеличения уже
+ * перенесённые бронирования оказались бы раньше границы.
+ * <p>
+ * BOOKINGS читается раньше архива, поэтому пакет, перенесённый между двумя выборками, попадает в обе, но не
+ * пропадает из слияния. Повторы по id из слияния убираются.
+ */
+@Component
+public class BookingHistory {
+
+    private static final Comparator<BookingResultDto> NEWEST_FIRST = Comparator
+            .comparing(BookingResultDto::getStart)
+            .thenComparing(BookingResultDto::getId)
+            .reversed();
+
+    private static final Sort BY_START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    private final ArchivedBookingUsers archivedUsers;
+
+    private final int afterDays;
+
+    public BookingHistory(ArchivedBookingUsers archivedUsers,
+                          @Value("${shareit.bookings.archive.after-days:180}") int afterDays) {
+        this.archivedUsers = archivedUsers;
+        this.afterDays = afterDays;
+    }
+
+    /**
+     * Страница pageable по смещению.
+     *
+     * @param userId   арендатор или владелец, чей список выбирается
+     * @param hot      выборка из BOOKINGS
+     * @param archived та же выборка из архива
+     */
+    public List<BookingResultDto> page(Long userId,
+                                       Function<Pageable, Slice<BookingResultDto>> hot,
+                                       Function<Pageable, Slice<BookingResultDto>> archived,
+                                       Pageable pageable) {
+        List<BookingResultDto> page = hot.apply(pageable).getContent();
+        int size = pageable.getPageSize();
+        if (!readsArchive(userId, page, page.size() == size)) {
+            return page;
+        }
+        if (pageable.getOffset() == 0) {
+            // Первая страница BOOKINGS уже выбрана, из архива нужны только первые size строк
+            return merge(page, archived.apply(PageRequest.of(0, size, BY_START_DESC)).getContent()).stream()
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
+        // Страница дальше первой: сливаются первые offset + size строк обеих таблиц
+        Pageable head = PageRequest.of(0, (int) pageable.getOffset() + size, BY_START_DESC);
+        return merge(hot.apply(head).getContent(), archived.apply(head).getContent()).stream()
+                .skip(pageable.getOffset())
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Страница по курсору (start, id): обе выборки уже ограничены курсором и упорядочены start desc, id desc.
+     *
+     * @param userId   арендатор или владелец, чей список выбирается
+     * @param hot      выборка из BOOKINGS
+     * @param archived та же выборка из архива
+     */
+    public Slice<BookingResultDto> slice(Long userId,
+                                         Function<Pageable, Slice<BookingResultDto>> hot,
+                                         Function<Pageable, Slice<BookingResultDto>> archived,
+                                         Pageable pageable) {
+        Slice<BookingResultDto> page = hot.apply(pageable);
+        if (!readsArchive(userId, page.getContent(), page.hasNext())) {
+            return page;
+        }
+        Slice<BookingResultDto> archivePage = archived.apply(pageable);
+        List<BookingResultDto> merged = merge(page.getContent(), archivePage.getContent());
+        int size = Math.min(pageable.getPageSize(), merged.size());
+        boolean hasNext = merged.size() > size || page.hasNext() || archivePage.hasNext();
+        return new SliceImpl<>(merged.subList(0, size), pageable, hasNext);
+    }
+
+    // Архив нужен, если у пользователя есть перенесённые бронирования, а выборка из BOOKINGS закончилась
+    // или её последняя строка начинается раньше границы архива
+    private boolean readsArchive(Long userId, List<BookingResultDto> page, boolean hasMore) {
+        if (hasMore) {
+            LocalDateTime boundary = LocalDateTime.now().minusDays(afterDays);
+            if (!page.get(page.size() - 1).getStart().isBefore(boundary)) {
+                return false;
+            }
+        }
+        return archivedUsers.contains(userId);
+    }
+
+    // Бронирование, перенесённое в архив между выборками, берётся из BOOKINGS
+    private static List<BookingResultDto> merge(List<BookingResultDto> hot, List<BookingResultDto> archived) {
+        Map<Long, BookingResultDto> byId = new LinkedHashMap<>();
+        hot.forEach(booking -> byId.put(booking.getId(), booking));
+        archived.forEach(booking -> byId.putIfAbsent(booking.getId(), booking));
+        List<BookingResultDto> merged = new ArrayList<>(byId.values());
+        merged.sort(NEWEST_FIRST);
+        return merged;
+    }
+}
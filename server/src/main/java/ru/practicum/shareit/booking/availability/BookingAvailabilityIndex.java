@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Индекс занятости вещей по бронированиям в статусах WAITING и APPROVED.
+ * <p>
+ * Индекс хранится в памяти экземпляра сервера, строится из BookingRepository при старте
+ * и обновляется при сохранении и подтверждении бронирований через BookingService.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+
+    private static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, ItemIntervals> intervalsByItem = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        intervalsByItem.clear();
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingWindow> windows = bookingRepository.findWindowsByStatusInAndEndAfter(BLOCKING_STATUSES, now);
+        for (BookingWindow window : windows) {
+            intervalsFor(window.getItemId()).put(window.getBookingId(),
+                    toMicros(window.getStart()),
+                    toMicros(window.getEnd()),
+                    toMicros(now));
+        }
+        log.info("Индекс занятости вещей построен, бронирований: {}, вещей: {}.", windows.size(),
+                intervalsByItem.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsByItem.get(itemId);
+        return intervals == null || intervals.isFree(toMicros(start), toMicros(end));
+    }
+
+    /**
+     * Сохраняет бронирование, если его интервал не пересекается с другими бронированиями вещи.
+     * Проверка и сохранение выполняются под блокировкой интервалов вещи, поэтому два пересекающихся
+     * бронирования одновременно сохранены не будут.
+     *
+     * @return сохранённое бронирование или пустой Optional, если интервал занят
+     */
+    public Optional<Booking> reserve(Booking booking, UnaryOperator<Booking> saver) {
+        if (!isIndexable(booking)) {
+            return Optional.of(saver.apply(booking));
+        }
+
+        ItemIntervals intervals = intervalsFor(booking.getItem().getId());
+        long start = toMicros(booking.getStart());
+        long end = toMicros(booking.getEnd());
+        Lock lock = intervals.reservationLock();
+        lock.lock();
+        try {
+            boolean reserved = booking.getId() != null && intervals.contains(booking.getId());
+            if (!reserved && !intervals.isFree(start, end)) {
+                return Optional.empty();
+            }
+            Booking saved = saver.apply(booking);
+            intervals.put(saved.getId(), start, end, toMicros(LocalDateTime.now()));
+            return Optional.of(saved);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Booking booking) {
+        ItemIntervals intervals = intervalsByItem.get(booking.getItem().getId());
+        if (intervals != null) {
+            intervals.remove(booking.getId());
+        }
+    }
+
+    private boolean isIndexable(Booking booking) {
+        return BLOCKING_STATUSES.contains(booking.getStatus())
+                && booking.getStart() != null
+                && booking.getEnd() != null;
+    }
+
+    private ItemIntervals intervalsFor(Long itemId) {
+        return intervalsByItem.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000L;
+    }
+}
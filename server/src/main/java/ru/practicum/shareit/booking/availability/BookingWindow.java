@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Окно бронирования вещи, загружаемое для построения индекса занятости.
+ */
+@Data
+@AllArgsConstructor
+public class BookingWindow {
+    private Long bookingId;
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Интервалы занятости одной вещи.
+ * <p>
+ * Интервалы [start, end) хранятся в массивах, отсортированных по началу, вместе с префиксным
+ * максимумом окончаний. Интервал [start, end) свободен, если среди интервалов, начинающихся раньше end,
+ * максимальное окончание не больше start, поэтому проверка выполняется одним бинарным поиском.
+ * Время хранится в микросекундах.
+ */
+class ItemIntervals {
+
+    private long[] bookingIds = new long[0];
+    private long[] starts = new long[0];
+    private long[] ends = new long[0];
+    private long[] maxEnds = new long[0];
+
+    // Держится на время проверки и сохранения бронирования в БД. Не монитор: виртуальный поток,
+    // ждущий ответа БД внутри synchronized, занимал бы поток-носитель
+    private final Lock reservationLock = new ReentrantLock();
+
+    Lock reservationLock() {
+        return reservationLock;
+    }
+
+    synchronized boolean isFree(long start, long end) {
+        int count = countStartedBefore(end);
+        return count == 0 || maxEnds[count - 1] <= start;
+    }
+
+    synchronized boolean contains(long bookingId) {
+        return indexOf(bookingId) >= 0;
+    }
+
+    /**
+     * Добавляет интервал бронирования, заменяя прежний интервал того же бронирования.
+     * Интервалы, закончившиеся до expiredBefore, удаляются: с ними новое бронирование пересечься уже не может.
+     */
+    synchronized void put(long bookingId, long start, long end, long expiredBefore) {
+        int size = 0;
+        long[] newIds = new long[bookingIds.length + 1];
+        long[] newStarts = new long[newIds.length];
+        long[] newEnds = new long[newIds.length];
+
+        boolean inserted = false;
+        for (int i = 0; i < bookingIds.length; i++) {
+            if (bookingIds[i] == bookingId || ends[i] < expiredBefore) {
+                continue;
+            }
+            if (!inserted && starts[i] > start) {
+                newIds[size] = bookingId;
+                newStarts[size] = start;
+                newEnds[size++] = end;
+                inserted = true;
+            }
+            newIds[size] = bookingIds[i];
+            newStarts[size] = starts[i];
+            newEnds[size++] = ends[i];
+        }
+        if (!inserted) {
+            newIds[size] = bookingId;
+            newStarts[size] = start;
+            newEnds[size++] = end;
+        }
+        replace(newIds, newStarts, newEnds, size);
+    }
+
+    synchronized void remove(long bookingId) {
+        int index = indexOf(bookingId);
+        if (index < 0) {
+            return;
+        }
+        long[] newIds = new long[bookingIds.length - 1];
+        long[] newStarts = new long[newIds.length];
+        long[] newEnds = new long[newIds.length];
+        for (int i = 0, j = 0; i < bookingIds.length; i++) {
+            if (i != index) {
+                newIds[j] = bookingIds[i];
+                newStarts[j] = starts[i];
+                newEnds[j++] = ends[i];
+            }
+        }
+        replace(newIds, newStarts, newEnds, newIds.length);
+    }
+
+    synchronized int size() {
+        return bookingIds.length;
+    }
+
+    private void replace(long[] newIds, long[] newStarts, long[] newEnds, int size) {
+        bookingIds = Arrays.copyOf(newIds, size);
+        starts = Arrays.copyOf(newStarts, size);
+        ends = Arrays.copyOf(newEnds, size);
+        maxEnds = new long[size];
+        for (int i = 0; i < size; i++) {
+            maxEnds[i] = (i == 0) ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+    }
+
+    private int countStartedBefore(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(long bookingId) {
+        for (int i = 0; i < bookingIds.length; i++) {
+            if (bookingIds[i] == bookingId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
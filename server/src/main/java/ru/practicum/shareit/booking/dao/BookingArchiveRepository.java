@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static ru.practicum.shareit.booking.dao.BookingRepository.KEYSET_FILTER;
+import static ru.practicum.shareit.booking.dao.BookingRepository.KEYSET_ORDER;
+
+/**
+ * Архив бронирований. Списки повторяют выборки {@link BookingRepository} и собираются в тот же ответ,
+ * чтобы страницы горячей таблицы и архива можно было слить по (start, id).
+ */
+@Repository
+public interface BookingArchiveRepository extends PagingAndSortingRepository<ArchivedBooking, Long> {
+
+    String RESULT = "select new ru.practicum.shareit.booking.dto.BookingResultDto(" +
+            "b.id, b.start, b.end, i.id, i.name, b.booker.id, b.status) from ArchivedBooking b join b.item i";
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<ArchivedBooking> findById(Long id);
+
+    @Query(RESULT + " where b.booker.id = ?1")
+    Slice<BookingResultDto> findAllByBooker_Id(Long userId, Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = ?1 and b.status = ?2")
+    Slice<BookingResultDto> findAllByBooker_IdAndStatus(Long userId, BookingStatus status, Pageable pageable);
+
+    @Query(RESULT + " where b.owner = ?1")
+    Slice<BookingResultDto> findAllByOwner_Id(Long userId, Pageable pageable);
+
+    @Query(RESULT + " where b.owner = ?1 and b.status = ?2")
+    Slice<BookingResultDto> findAllByOwner_IdAndStatus(Long userId, BookingStatus status, Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByBooker_Id(@Param("userId") Long userId,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId and b.status = :status" + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByBooker_IdAndStatus(@Param("userId") Long userId,
+                                                           @Param("status") BookingStatus status,
+                                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                                           @Param("cursorId") Long cursorId,
+                                                           Pageable pageable);
+
+    @Query(RESULT + " where b.owner = :userId" + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByOwner_Id(@Param("userId") Long userId,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query(RESULT + " where b.owner = :userId and b.status = :status" + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByOwner_IdAndStatus(@Param("userId") Long userId,
+                                                          @Param("status") BookingStatus status,
+                                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                                          @Param("cursorId") Long cursorId,
+                                                          Pageable pageable);
+
+    // Все бронирования архива закончились, поэтому дата окончания не проверяется
+    @Query("select case when count(b) > 0 then true else false end from ArchivedBooking b" +
+            " where b.booker.id = ?1 and b.item.id = ?2")
+    boolean existsByBooker_IdAndItem_Id(Long userId, Long itemId);
+
+    // Пересчёт сводок ItemBookingSummary: последнее бронирование вещей, у которых его нет в BOOKINGS
+    @Query("select b from ArchivedBooking b " +
+            " where b.item.id in ?1" +
+            " and b.end = (select max(lb.end) from ArchivedBooking lb where lb.item.id = b.item.id)")
+    List<ArchivedBooking> findLastByItem_IdIn(Collection<Long> itemIds);
+
+    // Перенос пакета из BOOKINGS: копирование и удаление выполняются в одной транзакции, поэтому
+    // бронирование всегда находится ровно в одной из таблиц
+
+    @Transactional
+    default int moveFromBookings(Collection<Long> ids) {
+        insertUsersFromBookings(ids);
+        insertFromBookings(ids);
+        return deleteFromBookings(ids);
+    }
+
+    // Отметки пользователей с бронированиями в архиве, см. ArchivedBookingUsers
+
+    @Query(nativeQuery = true,
+            value = "select case when exists (select 1 from BOOKINGS_ARCHIVE_USERS where user_id = ?1)" +
+                    " then true else false end")
+    boolean existsUserById(Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "insert into BOOKINGS_ARCHIVE_USERS (user_id)" +
+                    " select u.user_id from (select booker_id as user_id from BOOKINGS where id in (:ids)" +
+                    " union select owner_id from BOOKINGS where id in (:ids)) u" +
+                    " where not exists (select 1 from BOOKINGS_ARCHIVE_USERS a where a.user_id = u.user_id)")
+    int insertUsersFromBookings(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "insert into BOOKINGS_ARCHIVE (id, start_date, end_date, item_id, owner_id, booker_id, status)" +
+                    " select id, start_date, end_date, item_id, owner_id, booker_id, status from BOOKINGS" +
+                    " where id in (:ids)")
+    int insertFromBookings(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from BOOKINGS where id in (:ids)")
+    int deleteFromBookings(@Param("ids") Collection<Long> ids);
+}
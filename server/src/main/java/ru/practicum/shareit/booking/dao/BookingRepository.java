@@ -1,66 +1,212 @@
 package ru.practicum.shareit.booking.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingWindow;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends PagingAndSortingRepository<Booking, Long> {
 
-    Page<Booking> findAllByBooker_Id(Long userId, Pageable pageable);
+    // Строки списков сразу собираются в ответ: из вещи нужны только id и название, из арендатора - только id
+    String RESULT = "select new ru.practicum.shareit.booking.dto.BookingResultDto(" +
+            "b.id, b.start, b.end, i.id, i.name, b.booker.id, b.status) from Booking b join b.item i";
 
-    Page<Booking> findAllByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(
-            Long userId,
-            LocalDateTime dateStart,
-            LocalDateTime dateEnd,
-            Pageable pageable);
+    // Бронирования владельца фильтруются по копии owner_id в bookings: любой фильтр по состоянию - один
+    // диапазон индекса (owner_id, start_date desc, id desc), вещь присоединяется только к строкам страницы
+    String OWNER_FILTER = " where b.owner = :userId";
 
-    Page<Booking> findAllByBooker_IdAndEndBefore(Long userId, LocalDateTime date, Pageable pageable);
+    String KEYSET_FILTER = " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))";
 
-    Page<Booking> findAllByBooker_IdAndStartAfter(Long userId, LocalDateTime date, Pageable pageable);
-
-    Page<Booking> findAllByBooker_IdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            " where exists (select 0 from Item i where b.item.id = i.id and i.owner = ?1)" +
-            " order by b.start desc")
-    Page<Booking> findAllByOwner_Id(Long userId, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            " where exists (select 0 from Item i where b.item.id = i.id and i.owner = ?1)" +
-            " and ?2 between b.start and b.end" +
-            " order by b.start desc")
-    Page<Booking> findAllByOwner_IdCurrentByDate(Long userId, LocalDateTime date, Pageable pageable);
+    String KEYSET_ORDER = " order by b.start desc, b.id desc";
+
+    // Фазу в строке сдвигает BookingPhaseSweeper с отставанием до shareit.bookings.phase.sweep-delay, но вперёд
+    // дат она не уходит. Списки выбирают строки по равенству фазы - диапазоны индексов (booker_id/owner_id,
+    // phase, start_date desc, id desc), - и по датам добирают только строки, чью фазу сдвиг ещё не догнал:
+    // закончившиеся CURRENT, начавшиеся или уже закончившиеся FUTURE
+
+    String CURRENT_FILTER = " and (b.phase = 'CURRENT' and b.end >= :now" +
+            " or b.phase = 'FUTURE' and b.start <= :now and b.end >= :now)";
+
+    String PAST_FILTER = " and (b.phase = 'PAST'" +
+            " or b.phase = 'CURRENT' and b.end < :now" +
+            " or b.phase = 'FUTURE' and b.end < :now)";
+
+    String FUTURE_FILTER = " and b.phase = 'FUTURE' and b.start > :now";
+
+    // Одно бронирование загружается вместе с вещью и арендатором: они ленивые, а ответ строится из обоих
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    // Условие по booker.id сравнивается с внешним ключом напрямую: производные запросы
+    // Booker_Id строят left join к USERS, из-за которого индекс по booker_id не используется
+
+    @Query(RESULT + " where b.booker.id = ?1")
+    Slice<BookingResultDto> findAllByBooker_Id(Long userId, Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" + CURRENT_FILTER)
+    Slice<BookingResultDto> findCurrentByBooker_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" + PAST_FILTER)
+    Slice<BookingResultDto> findPastByBooker_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" + FUTURE_FILTER)
+    Slice<BookingResultDto> findFutureByBooker_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = ?1 and b.status = ?2")
+    Slice<BookingResultDto> findAllByBooker_IdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    @Query(RESULT + " where b.owner = ?1")
+    Slice<BookingResultDto> findAllByOwner_Id(Long userId, Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER + CURRENT_FILTER)
+    Slice<BookingResultDto> findCurrentByOwner_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER + PAST_FILTER)
+    Slice<BookingResultDto> findPastByOwner_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER + FUTURE_FILTER)
+    Slice<BookingResultDto> findFutureByOwner_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
+
+    @Query(RESULT + " where b.owner = ?1 and b.status = ?2")
+    Slice<BookingResultDto> findAllByOwner_IdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    // Постраничная выборка по курсору (start, id): страница начинается сразу после последней строки предыдущей
+
+    @Query(RESULT + " where b.booker.id = :userId" + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByBooker_Id(@Param("userId") Long userId,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" + CURRENT_FILTER + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetCurrentByBooker_Id(@Param("userId") Long userId,
+                                                         @Param("now") LocalDateTime now,
+                                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                                         @Param("cursorId") Long cursorId,
+                                                         Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" + PAST_FILTER + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetPastByBooker_Id(@Param("userId") Long userId,
+                                                      @Param("now") LocalDateTime now,
+                                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                                      @Param("cursorId") Long cursorId,
+                                                      Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" + FUTURE_FILTER + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetFutureByBooker_Id(@Param("userId") Long userId,
+                                                        @Param("now") LocalDateTime now,
+                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") Long cursorId,
+                                                        Pageable pageable);
+
+    @Query(RESULT + " where b.booker.id = :userId" +
+            " and b.status = :status" + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByBooker_IdAndStatus(@Param("userId") Long userId,
+                                                           @Param("status") BookingStatus status,
+                                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                                           @Param("cursorId") Long cursorId,
+                                                           Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByOwner_Id(@Param("userId") Long userId,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER + CURRENT_FILTER + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetCurrentByOwner_Id(@Param("userId") Long userId,
+                                                        @Param("now") LocalDateTime now,
+                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") Long cursorId,
+                                                        Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER + PAST_FILTER + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetPastByOwner_Id(@Param("userId") Long userId,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER + FUTURE_FILTER + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetFutureByOwner_Id(@Param("userId") Long userId,
+                                                       @Param("now") LocalDateTime now,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    @Query(RESULT + OWNER_FILTER +
+            " and b.status = :status" + KEYSET_FILTER + KEYSET_ORDER)
+    Slice<BookingResultDto> findKeysetByOwner_IdAndStatus(@Param("userId") Long userId,
+                                                          @Param("status") BookingStatus status,
+                                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                                          @Param("cursorId") Long cursorId,
+                                                          Pageable pageable);
+
+    // Сдвиг фаз: начавшиеся бронирования становятся CURRENT, закончившиеся - PAST. Фаза меняется только
+    // вперёд, поэтому повторный или параллельный сдвиг ничего не портит
+
+    String ADVANCE_PHASE = "update Booking b" +
+            " set b.phase = case when b.end < :date then 'PAST' else 'CURRENT' end" +
+            " where (b.phase = 'FUTURE' and b.start <= :date or b.phase = 'CURRENT' and b.end < :date)";
+
+    @Transactional
+    @Modifying
+    @Query(ADVANCE_PHASE + " and b.id in :ids")
+    int advancePhaseByIdIn(@Param("ids") Collection<Long> ids, @Param("date") LocalDateTime date);
+
+    // Пакеты BookingPhaseSweeper: id бронирований, чья фаза отстала от date
+
+    @Query("select b.id from Booking b where b.phase = 'FUTURE' and b.start <= ?1")
+    List<Long> findStartedIds(LocalDateTime date, Pageable pageable);
+
+    @Query("select b.id from Booking b where b.phase = 'CURRENT' and b.end < ?1")
+    List<Long> findEndedIds(LocalDateTime date, Pageable pageable);
+
+    // Пакеты BookingArchiver: id бронирований, закончившихся раньше date
+    @Query("select b.id from Booking b where b.phase = 'PAST' and b.end < ?1")
+    List<Long> findArchivableIds(LocalDateTime date, Pageable pageable);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b" +
+            " where b.booker.id = ?1 and b.item.id = ?2 and b.end < ?3")
+    boolean existsPastByBooker_IdAndItem_Id(Long userId, Long itemId, LocalDateTime date);
+
+    // Пересчёт сводок ItemBookingSummary: бронирования вещей с наибольшей прошедшей и наименьшей будущей датой окончания
 
     @Query("select b from Booking b " +
-            " where exists (select 0 from Item i where b.item.id = i.id and i.owner = ?1)" +
-            " and b.end < ?2" +
-            " order by b.start desc")
-    Page<Booking> findAllByOwner_IdAndEndBefore(Long userId, LocalDateTime date, Pageable pageable);
+            " where b.item.id in ?1" +
+            " and b.end = (select max(lb.end) from Booking lb where lb.item.id = b.item.id and lb.end < ?2)")
+    List<Booking> findLastByItem_IdIn(Collection<Long> itemIds, LocalDateTime date);
 
     @Query("select b from Booking b " +
-            " where exists (select 0 from Item i where b.item.id = i.id and i.owner = ?1)" +
-            " and b.start > ?2" +
-            " order by b.start desc")
-    Page<Booking> findAllByOwner_IdAndStartAfter(Long userId, LocalDateTime date, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            " where exists (select 0 from Item i where b.item.id = i.id and i.owner = ?1)" +
-            " and b.status = ?2" +
-            " order by b.start desc")
-    Page<Booking> findAllByOwner_IdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Optional<Booking> findFirstByItem_IdAndItem_OwnerAndEndBeforeOrderByEndDesc(Long itemId, Long userId, LocalDateTime date);
-
-    Optional<Booking> findFirstByItem_IdAndItem_OwnerAndEndAfterOrderByEnd(Long itemId, Long userId, LocalDateTime date);
-
-    Optional<Booking> findFirstByBooker_IdAndItem_IdAndEndBeforeOrderByStartDesc(Long userId, Long itemId, LocalDateTime date);
+            " where b.item.id in ?1" +
+            " and b.end = (select min(nb.end) from Booking nb where nb.item.id = b.item.id and nb.end > ?2)")
+    List<Booking> findNextByItem_IdIn(Collection<Long> itemIds, LocalDateTime date);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingWindow(b.id, b.item.id, b.start, b.end)" +
+            " from Booking b" +
+            " where b.status in ?1 and b.end > ?2")
+    List<BookingWindow> findWindowsByStatusInAndEndAfter(Collection<BookingStatus> statuses, LocalDateTime date);
 
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends PagingAndSortingRepository<ItemBookingSummary, Long> {
+
+    // Новое бронирование сравнивается с текущим в самом update: одновременные бронирования одной вещи
+    // не затирают друг друга, а версия сводки сообщает фоновому пересчёту, что строка изменилась
+
+    @Transactional
+    @Modifying
+    @Query("update ItemBookingSummary s set s.lastBookingId = :bookingId, s.lastBookerId = :bookerId," +
+            " s.lastEnd = :end, s.version = s.version + 1" +
+            " where s.itemId = :itemId and (s.lastEnd is null or s.lastEnd < :end" +
+            " or (s.lastEnd = :end and s.lastBookingId > :bookingId))")
+    int offerLast(@Param("itemId") Long itemId,
+                  @Param("bookingId") Long bookingId,
+                  @Param("bookerId") Long bookerId,
+                  @Param("end") LocalDateTime end);
+
+    @Transactional
+    @Modifying
+    @Query("update ItemBookingSummary s set s.nextBookingId = :bookingId, s.nextBookerId = :bookerId," +
+            " s.nextEnd = :end, s.version = s.version + 1" +
+            " where s.itemId = :itemId and (s.nextEnd is null or s.nextEnd > :end" +
+            " or (s.nextEnd = :end and s.nextBookingId > :bookingId))")
+    int offerNext(@Param("itemId") Long itemId,
+                  @Param("bookingId") Long bookingId,
+                  @Param("bookerId") Long bookerId,
+                  @Param("end") LocalDateTime end);
+
+    List<ItemBookingSummary> findAllByNextEndLessThanEqual(LocalDateTime date, Pageable pageable);
+}
@@ -27,6 +27,14 @@ public class BookingResultDto {
     private UserDto booker;
     private BookingStatus status = BookingStatus.WAITING;
 
+    /**
+     * Для выборки списков запросом select new: поля вещи и арендатора передаются отдельными столбцами.
+     */
+    public BookingResultDto(Long id, LocalDateTime start, LocalDateTime end,
+                            Long itemId, String itemName, Long bookerId, BookingStatus status) {
+        this(id, start, end, new ItemDto(itemId, itemName), new UserDto(bookerId), status);
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
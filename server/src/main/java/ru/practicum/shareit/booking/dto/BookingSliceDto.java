@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница бронирований, выбранная по курсору, и курсор следующей страницы (null, если страница последняя).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSliceDto {
+    private List<BookingResultDto> bookings;
+    private String nextCursor;
+}
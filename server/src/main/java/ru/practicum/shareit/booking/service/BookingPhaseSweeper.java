@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Фоновый сдвиг фаз бронирований: начавшиеся FUTURE становятся CURRENT, закончившиеся - PAST.
+ * <p>
+ * Бронирования обновляются пакетами по shareit.bookings.phase.sweep-batch-size, каждый пакет - отдельная
+ * короткая транзакция по списку id, поэтому блокировки не держатся дольше одного пакета. Обход повторяется
+ * через shareit.bookings.phase.sweep-delay миллисекунд после предыдущего.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingPhaseSweeper {
+
+    private final BookingRepository bookingRepository;
+
+    private final int batchSize;
+
+    public BookingPhaseSweeper(BookingRepository bookingRepository,
+                               @Value("${shareit.bookings.phase.sweep-batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.phase.sweep-delay:1000}")
+    public void sweep() {
+        int total;
+        try {
+            total = advance(LocalDateTime.now());
+        } catch (ConcurrencyFailureException e) {
+            // Строки пакета заблокированы другой транзакцией, они будут сдвинуты при следующем обходе
+            log.debug("Фазы бронирований не сдвинуты из-за блокировки: {}.", e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            log.debug("Сдвинуты фазы бронирований: {}.", total);
+        }
+    }
+
+    /**
+     * Сдвигает фазы всех бронирований, отставших от date.
+     *
+     * @return число обновлённых бронирований
+     */
+    public int advance(LocalDateTime date) {
+        return advance(date, bookingRepository::findStartedIds) + advance(date, bookingRepository::findEndedIds);
+    }
+
+    private int advance(LocalDateTime date, BiFunction<LocalDateTime, PageRequest, List<Long>> findIds) {
+        PageRequest batch = PageRequest.of(0, batchSize);
+        int total = 0;
+        List<Long> ids;
+        do {
+            // Сдвинутые бронирования перестают подходить под условие, следующий пакет снова берётся с начала
+            ids = findIds.apply(date, batch);
+            if (!ids.isEmpty()) {
+                total += bookingRepository.advancePhaseByIdIn(ids, date);
+            }
+        } while (ids.size() == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingSearchState;
+
+/**
+ * Время поиска бронирований (shareit.bookings.search) по состоянию, роли пользователя
+ * (booker - арендатор, owner - владелец вещей) и способу постраничного вывода (offset или cursor).
+ */
+@Component
+public class BookingSearchMetrics {
+
+    static final String TIMER_NAME = "shareit.bookings.search";
+
+    private final MeterRegistry meterRegistry;
+
+    public BookingSearchMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, BookingSearchState state, String role, String pagination) {
+        sample.stop(Timer.builder(TIMER_NAME)
+                .description("Время поиска бронирований")
+                .tag("state", state.name())
+                .tag("role", role)
+                .tag("pagination", pagination)
+                .register(meterRegistry));
+    }
+}
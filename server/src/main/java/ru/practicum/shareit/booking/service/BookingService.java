@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingParamDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 
 import java.util.List;
 
@@ -17,4 +18,8 @@ public interface BookingService {
     List<BookingResultDto> getBookingsByUserId(String state, Long userId, Integer from, Integer size);
 
     List<BookingResultDto> getBookingsItemsByUserId(String state, Long userId, Integer from, Integer size);
+
+    BookingSliceDto getBookingsByUserIdFromCursor(String state, Long userId, String cursor, Integer size);
+
+    BookingSliceDto getBookingsItemsByUserIdFromCursor(String state, Long userId, String cursor, Integer size);
 }
@@ -1,42 +1,61 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.mapstruct.factory.Mappers;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingSearchState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.archive.BookingHistory;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingParamDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.exception.ApproveNotOwnerException;
 import ru.practicum.shareit.booking.exception.BookerOrOwnerException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryStore;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final String BOOKER = "booker";
+    private static final String OWNER = "owner";
+    private static final String OFFSET = "offset";
+    private static final String CURSOR = "cursor";
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingSearchMetrics searchMetrics;
+    private final ItemBookingSummaryStore bookingSummaries;
+    private final BookingArchiveRepository archiveRepository;
+    private final BookingHistory history;
 
     private final BookingMapper mapper = Mappers.getMapper(BookingMapper.class);
 
@@ -44,7 +63,7 @@ public class BookingServiceImpl implements BookingService {
     public BookingResultDto addBooking(BookingParamDto bookingDto, Long userId) {
 
         // Проверка наличия пользователя
-        User user = userRepository.findById(userId).orElseThrow(
+        User user = userCache.findById(userId).orElseThrow(
                 () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
         );
         // Проверка наличия вещи
@@ -63,7 +82,9 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = mapper.toBooking(bookingDto);
         booking.setBooker(user);
         booking.setItem(item);
-        return mapper.toBookingDto(bookingRepository.save(booking));
+        Booking saved = reserve(booking);
+        bookingSummaries.add(saved);
+        return mapper.toBookingDto(saved);
     }
 
     @Override
@@ -87,31 +108,34 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(bookingStatus);
-        return mapper.toBookingDto(bookingRepository.save(booking));
+        if (bookingStatus == BookingStatus.REJECTED) {
+            Booking rejected = bookingRepository.save(booking);
+            availabilityIndex.release(rejected);
+            return mapper.toBookingDto(rejected);
+        }
+        return mapper.toBookingDto(reserve(booking));
     }
 
     @Override
     public BookingResultDto getBookingById(Long bookingId, Long userId) {
 
         // Проверка наличия пользователя
-        userRepository.findById(userId).orElseThrow(
+        userCache.findById(userId).orElseThrow(
                 () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
         );
 
         Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
         if (bookingOpt.isEmpty()) {
-            throw new BookingNotFoundException(String.format("Заявка от пользователя userId = %d с bookingId = %d",
-                    userId, bookingId));
+            // Давно закончившееся бронирование могло быть перенесено в архив
+            ArchivedBooking archived = archiveRepository.findById(bookingId).orElseThrow(
+                    () -> new BookingNotFoundException(String.format(
+                            "Заявка от пользователя userId = %d с bookingId = %d", userId, bookingId)));
+            checkBookerOrOwner(archived.getBooker().getId(), archived.getOwner(), userId);
+            return mapper.toBookingDto(archived);
         }
 
         Booking booking = bookingOpt.get();
-
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().equals(userId)) {
-            throw new BookerOrOwnerException(
-                    String.format("Пользователь userId = %d должен являться либо автором заявки или владельцем вещи.",
-                            userId)
-            );
-        }
+        checkBookerOrOwner(booking.getBooker().getId(), booking.getItem().getOwner(), userId);
 
         return mapper.toBookingDto(booking);
     }
@@ -120,136 +144,225 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingResultDto> getBookingsByUserId(String state, Long userId, Integer from, Integer size) {
 
         // Проверка наличия пользователя
-        userRepository.findById(userId).orElseThrow(
+        userCache.findById(userId).orElseThrow(
                 () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
         );
 
-        BookingSearchState.valueOf(state);
+        BookingSearchState searchState = BookingSearchState.valueOf(state);
 
         int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         Pageable pageable = PageRequest.of(page, size, sort);
-
-        switch (BookingSearchState.valueOf(state)) {
-            case ALL:
-                return bookingRepository.findAllByBooker_Id(userId, pageable)
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                LocalDateTime currentDate = LocalDateTime.now();
-                return bookingRepository.findAllByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(
-                                userId,
-                                currentDate,
-                                currentDate,
-                                pageable
-                        ).stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByBooker_IdAndEndBefore(
-                                userId,
-                                LocalDateTime.now(),
-                                pageable)
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByBooker_IdAndStartAfter(
-                                userId,
-                                LocalDateTime.now(),
-                                pageable)
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findAllByBooker_IdAndStatus(
-                                userId,
-                                BookingStatus.WAITING,
-                                pageable
-                        )
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findAllByBooker_IdAndStatus(
-                                userId,
-                                BookingStatus.REJECTED,
-                                pageable)
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            default:
-                return List.of();
+        LocalDateTime now = LocalDateTime.now();
+
+        Timer.Sample sample = searchMetrics.start();
+        try {
+            switch (searchState) {
+                case ALL:
+                    return history.page(userId, p -> bookingRepository.findAllByBooker_Id(userId, p),
+                            p -> archiveRepository.findAllByBooker_Id(userId, p), pageable);
+                case CURRENT:
+                    return bookingRepository.findCurrentByBooker_Id(userId, now, pageable).getContent();
+                case FUTURE:
+                    return bookingRepository.findFutureByBooker_Id(userId, now, pageable).getContent();
+                case PAST:
+                    return history.page(userId, p -> bookingRepository.findPastByBooker_Id(userId, now, p),
+                            p -> archiveRepository.findAllByBooker_Id(userId, p), pageable);
+                case WAITING:
+                case REJECTED:
+                    BookingStatus status = toStatus(searchState);
+                    return history.page(userId,
+                            p -> bookingRepository.findAllByBooker_IdAndStatus(userId, status, p),
+                            p -> archiveRepository.findAllByBooker_IdAndStatus(userId, status, p), pageable);
+                default:
+                    return List.of();
+            }
+        } finally {
+            searchMetrics.stop(sample, searchState, BOOKER, OFFSET);
         }
     }
 
     @Override
     public List<BookingResultDto> getBookingsItemsByUserId(String state, Long userId, Integer from, Integer size) {
         // Проверка наличия пользователя
-        userRepository.findById(userId).orElseThrow(
+        userCache.findById(userId).orElseThrow(
                 () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
         );
 
-        BookingSearchState.valueOf(state);
+        BookingSearchState searchState = BookingSearchState.valueOf(state);
 
         int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest pageRequest = PageRequest.of(page, size, sort);
+        LocalDateTime now = LocalDateTime.now();
+
+        Timer.Sample sample = searchMetrics.start();
+        try {
+            switch (searchState) {
+                case ALL:
+                    return history.page(userId, p -> bookingRepository.findAllByOwner_Id(userId, p),
+                            p -> archiveRepository.findAllByOwner_Id(userId, p), pageRequest);
+                case CURRENT:
+                    return bookingRepository.findCurrentByOwner_Id(userId, now, pageRequest).getContent();
+                case FUTURE:
+                    return bookingRepository.findFutureByOwner_Id(userId, now, pageRequest).getContent();
+                case PAST:
+                    return history.page(userId, p -> bookingRepository.findPastByOwner_Id(userId, now, p),
+                            p -> archiveRepository.findAllByOwner_Id(userId, p), pageRequest);
+                case WAITING:
+                case REJECTED:
+                    BookingStatus status = toStatus(searchState);
+                    return history.page(userId, p -> bookingRepository.findAllByOwner_IdAndStatus(userId, status, p),
+                            p -> archiveRepository.findAllByOwner_IdAndStatus(userId, status, p), pageRequest);
+                default:
+                    return List.of();
+            }
+        } finally {
+            searchMetrics.stop(sample, searchState, OWNER, OFFSET);
+        }
+    }
 
-        switch (BookingSearchState.valueOf(state)) {
-            case ALL:
-                return bookingRepository.findAllByOwner_Id(userId, pageRequest)
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByOwner_IdCurrentByDate(
-                                userId,
-                                LocalDateTime.now(),
-                                pageRequest
-                        )
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByOwner_IdAndEndBefore(
-                                userId,
-                                LocalDateTime.now(),
-                                pageRequest
-                        )
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByOwner_IdAndStartAfter(
-                                userId,
-                                LocalDateTime.now(),
-                                pageRequest
-                        )
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findAllByOwner_IdAndStatus(
-                                userId,
-                                BookingStatus.WAITING,
-                                pageRequest
-                        )
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findAllByOwner_IdAndStatus(
-                                userId,
-                                BookingStatus.REJECTED,
-                                pageRequest
-                        )
-                        .stream()
-                        .map(mapper::toBookingDto)
-                        .collect(Collectors.toList());
-            default:
-                return List.of();
+    @Override
+    public BookingSliceDto getBookingsByUserIdFromCursor(String state, Long userId, String cursor, Integer size) {
+
+        // Проверка наличия пользователя
+        userCache.findById(userId).orElseThrow(
+                () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
+        );
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+
+        BookingSearchState searchState = BookingSearchState.valueOf(state);
+        Timer.Sample sample = searchMetrics.start();
+        try {
+            Slice<BookingResultDto> bookings;
+            switch (searchState) {
+                case ALL:
+                    bookings = history.slice(userId,
+                            p -> bookingRepository.findKeysetByBooker_Id(userId, position.getDate(), position.getId(), p),
+                            p -> archiveRepository.findKeysetByBooker_Id(userId, position.getDate(), position.getId(), p),
+                            pageable);
+                    break;
+                case CURRENT:
+                    bookings = bookingRepository.findKeysetCurrentByBooker_Id(userId, now,
+                            position.getDate(), position.getId(), pageable);
+                    break;
+                case FUTURE:
+                    bookings = bookingRepository.findKeysetFutureByBooker_Id(userId, now,
+                            position.getDate(), position.getId(), pageable);
+                    break;
+                case PAST:
+                    bookings = history.slice(userId,
+                            p -> bookingRepository.findKeysetPastByBooker_Id(userId, now,
+                                    position.getDate(), position.getId(), p),
+                            p -> archiveRepository.findKeysetByBooker_Id(userId, position.getDate(), position.getId(), p),
+                            pageable);
+                    break;
+                case WAITING:
+                case REJECTED:
+                    BookingStatus status = toStatus(searchState);
+                    bookings = history.slice(userId,
+                            p -> bookingRepository.findKeysetByBooker_IdAndStatus(userId, status,
+                                    position.getDate(), position.getId(), p),
+                            p -> archiveRepository.findKeysetByBooker_IdAndStatus(userId, status,
+                                    position.getDate(), position.getId(), p),
+                            pageable);
+                    break;
+                default:
+                    bookings = new SliceImpl<>(List.of());
+            }
+            return toSliceDto(bookings);
+        } finally {
+            searchMetrics.stop(sample, searchState, BOOKER, CURSOR);
         }
     }
+
+    @Override
+    public BookingSliceDto getBookingsItemsByUserIdFromCursor(String state, Long userId, String cursor, Integer size) {
+
+        // Проверка наличия пользователя
+        userCache.findById(userId).orElseThrow(
+                () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
+        );
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+
+        BookingSearchState searchState = BookingSearchState.valueOf(state);
+        Timer.Sample sample = searchMetrics.start();
+        try {
+            Slice<BookingResultDto> bookings;
+            switch (searchState) {
+                case ALL:
+                    bookings = history.slice(userId,
+                            p -> bookingRepository.findKeysetByOwner_Id(userId, position.getDate(), position.getId(), p),
+                            p -> archiveRepository.findKeysetByOwner_Id(userId, position.getDate(), position.getId(), p),
+                            pageable);
+                    break;
+                case CURRENT:
+                    bookings = bookingRepository.findKeysetCurrentByOwner_Id(userId, now,
+                            position.getDate(), position.getId(), pageable);
+                    break;
+                case FUTURE:
+                    bookings = bookingRepository.findKeysetFutureByOwner_Id(userId, now,
+                            position.getDate(), position.getId(), pageable);
+                    break;
+                case PAST:
+                    bookings = history.slice(userId,
+                            p -> bookingRepository.findKeysetPastByOwner_Id(userId, now,
+                                    position.getDate(), position.getId(), p),
+                            p -> archiveRepository.findKeysetByOwner_Id(userId, position.getDate(), position.getId(), p),
+                            pageable);
+                    break;
+                case WAITING:
+                case REJECTED:
+                    BookingStatus status = toStatus(searchState);
+                    bookings = history.slice(userId,
+                            p -> bookingRepository.findKeysetByOwner_IdAndStatus(userId, status,
+                                    position.getDate(), position.getId(), p),
+                            p -> archiveRepository.findKeysetByOwner_IdAndStatus(userId, status,
+                                    position.getDate(), position.getId(), p),
+                            pageable);
+                    break;
+                default:
+                    bookings = new SliceImpl<>(List.of());
+            }
+            return toSliceDto(bookings);
+        } finally {
+            searchMetrics.stop(sample, searchState, OWNER, CURSOR);
+        }
+    }
+
+    // Состояния WAITING и REJECTED совпадают по имени со статусами бронирования
+    private static BookingStatus toStatus(BookingSearchState state) {
+        return BookingStatus.valueOf(state.name());
+    }
+
+    private static void checkBookerOrOwner(Long bookerId, Long ownerId, Long userId) {
+        if (!bookerId.equals(userId) && !ownerId.equals(userId)) {
+            throw new BookerOrOwnerException(
+                    String.format("Пользователь userId = %d должен являться либо автором заявки или владельцем вещи.",
+                            userId)
+            );
+        }
+    }
+
+    private BookingSliceDto toSliceDto(Slice<BookingResultDto> bookings) {
+        String nextCursor = null;
+        if (bookings.hasNext()) {
+            BookingResultDto last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            nextCursor = new KeysetCursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingSliceDto(bookings.getContent(), nextCursor);
+    }
+
+    private Booking reserve(Booking booking) {
+        return availabilityIndex.reserve(booking, bookingRepository::save).orElseThrow(
+                () -> new ValidationException(String.format("Вещь itemId = %d уже забронирована на эти даты.",
+                        booking.getItem().getId()))
+        );
+    }
 }
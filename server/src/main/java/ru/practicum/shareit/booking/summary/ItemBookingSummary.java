@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее бронирование вещи.
+ * <p>
+ * Последнее - бронирование с наибольшей датой окончания в прошлом, следующее - с наименьшей датой окончания
+ * в будущем, при равных датах - с меньшим id. Статус бронирования не учитывается.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "item_bookings", schema = "public")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_end_date")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_end_date")
+    private LocalDateTime nextEnd;
+
+    @Version
+    private Long version;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * Копия сводки вне контекста персистентности, с той же версией.
+     */
+    public ItemBookingSummary copy() {
+        ItemBookingSummary copy = new ItemBookingSummary(itemId);
+        copy.lastBookingId = lastBookingId;
+        copy.lastBookerId = lastBookerId;
+        copy.lastEnd = lastEnd;
+        copy.nextBookingId = nextBookingId;
+        copy.nextBookerId = nextBookerId;
+        copy.nextEnd = nextEnd;
+        copy.version = version;
+        return copy;
+    }
+
+    /**
+     * Следующее бронирование к этому моменту закончилось, и сводку нужно пересчитать.
+     */
+    public boolean isOutdated(LocalDateTime date) {
+        return nextEnd != null && !nextEnd.isAfter(date);
+    }
+
+    public void setLast(Booking booking) {
+        lastBookingId = booking != null ? booking.getId() : null;
+        lastBookerId = booking != null ? booking.getBooker().getId() : null;
+        lastEnd = booking != null ? booking.getEnd() : null;
+    }
+
+    public void setLast(ArchivedBooking booking) {
+        lastBookingId = booking.getId();
+        lastBookerId = booking.getBooker().getId();
+        lastEnd = booking.getEnd();
+    }
+
+    public void setNext(Booking booking) {
+        nextBookingId = booking != null ? booking.getId() : null;
+        nextBookerId = booking != null ? booking.getBooker().getId() : null;
+        nextEnd = booking != null ? booking.getEnd() : null;
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводки последнего и следующего бронирования вещей.
+ * <p>
+ * Сводка создаётся вместе с вещью и обновляется при добавлении бронирования через BookingService.
+ * Когда следующее бронирование заканчивается, сводку пересчитывает {@link ItemBookingSummarySweeper}, а пока
+ * он не успел, чтение пересчитывает её для ответа, не сохраняя. Для вещей, сохранённых в обход сервиса, сводки
+ * нет, и чтение каждый раз собирает её по бронированиям.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryStore {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
+
+    public void create(Collection<Long> itemIds) {
+        summaryRepository.saveAll(itemIds.stream()
+                .map(ItemBookingSummary::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Учитывает сохранённое бронирование: оно становится последним или следующим, если оказалось ближе
+     * к текущему моменту, чем записанное в сводке.
+     */
+    public void add(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        Long itemId = booking.getItem().getId();
+        if (booking.getEnd().isAfter(now)) {
+            summaryRepository.offerNext(itemId, booking.getId(), booking.getBooker().getId(), booking.getEnd());
+        } else if (booking.getEnd().isBefore(now)) {
+            summaryRepository.offerLast(itemId, booking.getId(), booking.getBooker().getId(), booking.getEnd());
+        }
+    }
+
+    /**
+     * Сводки вещей на текущий момент. Устаревшие и недостающие пересчитываются по бронированиям только для
+     * ответа: чтение сводки не сохраняет, строки обновляют бронирования и {@link ItemBookingSummarySweeper}.
+     */
+    public Map<Long, ItemBookingSummary> findAllByItemIds(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        summaryRepository.findAllById(itemIds).forEach(summary -> summaries.put(summary.getItemId(), summary));
+
+        List<ItemBookingSummary> outdated = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null || summary.isOutdated(now)) {
+                // Пересчитывается копия: загруженная сводка не должна попасть в сброс изменений транзакции
+                ItemBookingSummary copy = summary != null ? summary.copy() : new ItemBookingSummary(itemId);
+                summaries.put(itemId, copy);
+                outdated.add(copy);
+            }
+        }
+        if (!outdated.isEmpty()) {
+            refresh(outdated, now);
+        }
+        return summaries;
+    }
+
+    /**
+     * Пересчитывает не больше limit сводок, у которых следующее бронирование закончилось к date.
+     *
+     * @return число пересчитанных сводок
+     * @throws OptimisticLockingFailureException если сводку одновременно изменило новое бронирование
+     */
+    public int advance(LocalDateTime date, int limit) {
+        List<ItemBookingSummary> outdated = summaryRepository.findAllByNextEndLessThanEqual(date,
+                PageRequest.of(0, limit, Sort.by("nextEnd")));
+        if (!outdated.isEmpty()) {
+            refresh(outdated, date);
+            summaryRepository.saveAll(outdated);
+        }
+        return outdated.size();
+    }
+
+    private void refresh(List<ItemBookingSummary> summaries, LocalDateTime date) {
+        List<Long> itemIds = summaries.stream().map(ItemBookingSummary::getItemId).collect(Collectors.toList());
+        Map<Long, Booking> last = byItem(bookingRepository.findLastByItem_IdIn(itemIds, date));
+        Map<Long, Booking> next = byItem(bookingRepository.findNextByItem_IdIn(itemIds, date));
+        List<ItemBookingSummary> withoutLast = new ArrayList<>();
+        for (ItemBookingSummary summary : summaries) {
+            // Последнее бронирование не сбрасывается: если в BOOKINGS его нет, оно могло уйти в архив
+            Booking booking = last.get(summary.getItemId());
+            if (booking != null) {
+                summary.setLast(booking);
+            } else if (summary.getLastBookingId() == null) {
+                withoutLast.add(summary);
+            }
+            summary.setNext(next.get(summary.getItemId()));
+        }
+        if (!withoutLast.isEmpty()) {
+            Map<Long, ArchivedBooking> archived = archiveRepository.findLastByItem_IdIn(withoutLast.stream()
+                            .map(ItemBookingSummary::getItemId)
+                            .collect(Collectors.toList())).stream()
+                    .sorted(Comparator.comparing(ArchivedBooking::getId))
+                    .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                            (first, second) -> first));
+            for (ItemBookingSummary summary : withoutLast) {
+                ArchivedBooking booking = archived.get(summary.getItemId());
+                if (booking != null) {
+                    summary.setLast(booking);
+                }
+            }
+        }
+    }
+
+    private static Map<Long, Booking> byItem(List<Booking> bookings) {
+        // При совпадении даты окончания берётся бронирование с меньшим id
+        return bookings.stream()
+                .sorted(Comparator.comparing(Booking::getId))
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фоновый пересчёт сводок вещей, у которых закончилось следующее бронирование.
+ * <p>
+ * Сводки пересчитываются пакетами по shareit.items.booking-summary.sweep-batch-size, пока не закончатся
+ * устаревшие, обход повторяется через shareit.items.booking-summary.sweep-delay миллисекунд после предыдущего.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemBookingSummarySweeper {
+
+    private final ItemBookingSummaryStore summaryStore;
+
+    private final int batchSize;
+
+    public ItemBookingSummarySweeper(ItemBookingSummaryStore summaryStore,
+                                     @Value("${shareit.items.booking-summary.sweep-batch-size:500}") int batchSize) {
+        this.summaryStore = summaryStore;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-summary.sweep-delay:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        try {
+            int advanced;
+            do {
+                advanced = summaryStore.advance(now, batchSize);
+                total += advanced;
+            } while (advanced == batchSize);
+        } catch (OptimisticLockingFailureException e) {
+            // Пакет не сохранён, его сводки останутся устаревшими до следующего обхода
+            log.debug("Сводка бронирований изменена во время пересчёта, пакет будет пересчитан при следующем обходе.");
+        }
+        if (total > 0) {
+            log.debug("Пересчитано сводок бронирований вещей: {}.", total);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.metrics.SqlStatementMetricsInterceptor;
+
+/**
+ * Подсчёт SQL-запросов на HTTP-запрос: счётчик подключается к Hibernate, перехватчик
+ * запускает его перед обработчиком и записывает результат после ответа.
+ * Страница /actuator/prometheus отдаёт эту и остальные метрики в формате Prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlStatementMetricsConfigurer(SqlStatementCounter sqlStatementCounter,
+                                                          MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlStatementMetricsInterceptor(sqlStatementCounter, meterRegistry));
+            }
+        };
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
@@ -34,6 +35,13 @@ public class ItemController {
         return ResponseEntity.ok(itemService.addItem(itemDto, userId));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemImportResult>> addItems(@RequestBody List<ItemDto> itemDtos,
+                                                           @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.info("Получен запрос на добавление пакета вещей, count={}, userId={}", itemDtos.size(), userId);
+        return ResponseEntity.ok(itemService.addItems(itemDtos, userId));
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(@RequestBody ItemDto itemDto,
                                               @PathVariable Long itemId,
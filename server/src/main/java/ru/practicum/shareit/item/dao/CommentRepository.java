@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @Query("select c from Comment c where c.item.id = ?1")
     List<Comment> findAllByItem_Id(Long itemId);
+
+    @Query("select c from Comment c where c.item.id in ?1")
+    List<Comment> findAllByItem_IdIn(Collection<Long> itemIds);
 }
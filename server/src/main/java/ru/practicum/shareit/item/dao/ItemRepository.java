@@ -2,26 +2,51 @@ package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
     Page<Item> findAllByOwner(Long userId, Pageable pageable);
 
-    @Query(" select i from Item i " +
-            "where " +
-            "?1 is not null and length(?1) > 0" +
-            "and i.available = true " +
-            "and (" +
-            "lower(i.name) like lower(concat('%', ?1, '%')) " +
-            " or lower(i.description) like lower(concat('%', ?1, '%')))")
-    Page<Item> searchItems(String text, Pageable pageable);
+    // Сначала точное совпадение названия, затем название с искомого текста, затем вхождение в название,
+    // затем только в описание. Под Postgres условие like обслуживается триграммными индексами
+    default Slice<Item> searchItems(String text, Pageable pageable) {
+        return searchItemsByPattern(text, escapeLike(text), pageable);
+    }
+
+    // pattern - искомый текст, в котором % и _ экранированы и ищутся как обычные символы
+    @Query("select i from Item i" +
+            " where ?1 is not null and length(?1) > 0" +
+            " and i.available = true" +
+            " and (lower(i.name) like lower(concat('%', ?2, '%')) escape '\\'" +
+            " or lower(i.description) like lower(concat('%', ?2, '%')) escape '\\')" +
+            " order by case" +
+            " when lower(i.name) = lower(?1) then 0" +
+            " when lower(i.name) like lower(concat(?2, '%')) escape '\\' then 1" +
+            " when lower(i.name) like lower(concat('%', ?2, '%')) escape '\\' then 2" +
+            " else 3 end, i.id")
+    Slice<Item> searchItemsByPattern(String text, String pattern, Pageable pageable);
+
+    static String escapeLike(String text) {
+        if (text == null) {
+            return null;
+        }
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
 
     List<Item> findAllByRequest(Long requestId);
 
+    List<Item> findAllByRequestIn(Collection<Long> requestIds);
+
+    List<Item> findAllByAvailableTrue();
+
 }
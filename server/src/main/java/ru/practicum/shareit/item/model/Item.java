@@ -16,11 +16,17 @@ import javax.persistence.*;
 @Entity
 @Table(name = "items", schema = "public")
 public class Item {
+    // Длины столбцов items.name и items.description
+    public static final int NAME_MAX_LENGTH = 50;
+    public static final int DESCRIPTION_MAX_LENGTH = 255;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
-    @Column(name = "name", nullable = false)
+    @Column(name = "name", nullable = false, length = NAME_MAX_LENGTH)
     private String name;
+    @Column(length = DESCRIPTION_MAX_LENGTH)
     private String description;
     @Column(name = "is_available")
     private boolean available;
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Поиск по триграммному индексу в памяти экземпляра сервера.
+ * <p>
+ * Индекс строится из ItemRepository при старте и обновляется при сохранении вещей через ItemService,
+ * поэтому поиск к базе данных не обращается. Вещи, сохранённые в обход ItemService,
+ * попадут в индекс только после перезапуска. Вещь, сохранённая в транзакции, попадает в индекс только
+ * после её фиксации: откаченная вставка не оставляет в индексе вещей, которых нет в базе данных.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    private final ItemTrigramIndex index = new ItemTrigramIndex();
+
+    @PostConstruct
+    public void rebuild() {
+        List<Item> items = itemRepository.findAllByAvailableTrue();
+        index.clear();
+        items.forEach(index::put);
+        log.info("Поисковый индекс вещей построен, вещей: {}, триграмм: {}.", index.size(), index.trigramCount());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return index.search(text, 0, Integer.MAX_VALUE);
+        }
+        return index.search(text, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public void index(Item item) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(item);
+                }
+            });
+        } else {
+            apply(item);
+        }
+    }
+
+    private void apply(Item item) {
+        if (item.isAvailable()) {
+            index.put(item);
+        } else {
+            index.remove(item.getId());
+        }
+    }
+}
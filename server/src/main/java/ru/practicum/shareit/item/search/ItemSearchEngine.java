@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по вхождению текста в название или описание без учёта регистра.
+ * <p>
+ * Результаты упорядочены по релевантности: точное совпадение названия, название начинается с текста,
+ * текст входит в название, текст входит только в описание; при равной релевантности - по id.
+ * Реализация выбирается свойством shareit.search.engine: database (по умолчанию) или memory.
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Учитывает сохранённую вещь: доступная вещь добавляется в индекс или обновляется в нём,
+     * недоступная удаляется из индекса. Внутри транзакции изменение индекса применяется после её фиксации.
+     */
+    void index(Item item);
+}
@@ -0,0 +1,286 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс вещей по триграммам названия и описания в нижнем регистре.
+ * <p>
+ * Для каждой триграммы хранится отсортированный массив id вещей. Кандидаты на совпадение с текстом
+ * из трёх и более символов - пересечение списков всех триграмм текста, после чего вхождение
+ * проверяется по сохранённым строкам. Текст короче трёх символов проверяется перебором всех вещей.
+ */
+class ItemTrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private static final Comparator<Entry> RELEVANCE = Comparator.<Entry>comparingInt(entry -> entry.rank)
+            .thenComparingLong(entry -> entry.id);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Добавляет вещь в индекс, заменяя прежнюю версию вещи с тем же id.
+     */
+    void put(Item item) {
+        Entry entry = new Entry(item);
+        lock.writeLock().lock();
+        try {
+            removeEntry(entry.id);
+            for (long gram : entry.grams) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(entry.id);
+            }
+            entries.put(entry.id, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Item> search(String text, long offset, int limit) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String query = text.toLowerCase(Locale.ROOT);
+
+        List<Entry> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                for (Entry entry : entries.values()) {
+                    addIfMatches(entry, query, found);
+                }
+            } else {
+                Postings[] lists = postingsOf(query);
+                if (lists.length > 0) {
+                    Postings smallest = lists[0];
+                    for (int i = 0; i < smallest.size; i++) {
+                        long id = smallest.ids[i];
+                        if (containedInAll(lists, id)) {
+                            addIfMatches(entries.get(id), query, found);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return found.stream()
+                .sorted(RELEVANCE)
+                .skip(offset)
+                .limit(limit)
+                .map(entry -> copyOf(entry.item))
+                .collect(Collectors.toList());
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeEntry(long itemId) {
+        Entry entry = entries.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        for (long gram : entry.grams) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(itemId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Списки триграмм текста от короткого к длинному или пустой массив, если какой-то триграммы нет в индексе.
+     */
+    private Postings[] postingsOf(String query) {
+        long[] grams = gramsOf(query);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new Postings[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        return lists;
+    }
+
+    private static boolean containedInAll(Postings[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addIfMatches(Entry entry, String query, List<Entry> found) {
+        int rank = entry.rank(query);
+        if (rank >= 0) {
+            found.add(entry.withRank(rank));
+        }
+    }
+
+    /**
+     * Различные триграммы строки в порядке возрастания; символы триграммы упакованы в одно число.
+     */
+    private static long[] gramsOf(String... values) {
+        int length = 0;
+        for (String value : values) {
+            length += Math.max(value.length() - GRAM + 1, 0);
+        }
+        long[] grams = new long[length];
+        int count = 0;
+        for (String value : values) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                grams[count++] = ((long) value.charAt(i) << 32)
+                        | ((long) value.charAt(i + 1) << 16)
+                        | value.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(grams).sorted().distinct().toArray();
+    }
+
+    private static Item copyOf(Item item) {
+        return new Item(item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.isAvailable(),
+                item.getOwner(),
+                item.getRequest());
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final Item item;
+        private final String name;
+        private final String description;
+        private final long[] grams;
+        private final int rank;
+
+        private Entry(Item item) {
+            this.id = item.getId();
+            this.item = copyOf(item);
+            this.name = lower(item.getName());
+            this.description = lower(item.getDescription());
+            this.grams = gramsOf(name, description);
+            this.rank = -1;
+        }
+
+        private Entry(Entry source, int rank) {
+            this.id = source.id;
+            this.item = source.item;
+            this.name = source.name;
+            this.description = source.description;
+            this.grams = source.grams;
+            this.rank = rank;
+        }
+
+        private Entry withRank(int rank) {
+            return new Entry(this, rank);
+        }
+
+        /**
+         * Релевантность в порядке ItemRepository.searchItems или -1, если текст не входит ни в одно поле.
+         */
+        private int rank(String query) {
+            if (name.equals(query)) {
+                return 0;
+            } else if (name.startsWith(query)) {
+                return 1;
+            } else if (name.contains(query)) {
+                return 2;
+            } else if (description.contains(query)) {
+                return 3;
+            }
+            return -1;
+        }
+
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Отсортированный по возрастанию список id. Новые вещи получают возрастающие id,
+     * поэтому добавление обычно сводится к записи в конец массива.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -2,12 +2,19 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 
 import java.util.List;
 
 public interface ItemService {
     ItemDto addItem(ItemDto itemDto, Long userId);
 
+    /**
+     * Добавляет пакет вещей одного владельца. Результаты возвращаются в порядке вещей пакета,
+     * вещь со ссылкой на несуществующий запрос не добавляется, остальные добавляются.
+     */
+    List<ItemImportResult> addItems(List<ItemDto> itemDtos, Long userId);
+
     ItemDto updateItem(ItemDto itemDto, Long itemId, Long userId);
 
     ItemDto getItemById(Long itemId, Long userId);
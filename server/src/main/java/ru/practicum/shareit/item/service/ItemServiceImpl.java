@@ -7,45 +7,141 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryStore;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.ItemUpdateException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    // Пакет сохраняется одной транзакцией, размер ограничен, чтобы транзакция оставалась короткой
+    static final int MAX_IMPORT_SIZE = 1000;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingSummaryStore bookingSummaries;
+    private final BookingArchiveRepository bookingArchive;
 
     private final ItemMapper mapper = Mappers.getMapper(ItemMapper.class);
 
+    // Вещь и её сводка бронирований сохраняются вместе
     @Override
+    @Transactional
     public ItemDto addItem(ItemDto itemDto, Long userId) {
 
         User user = getUser(userId);
         Item item = mapper.toItem(itemDto);
         item.setOwner(user.getId());
-        return mapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        bookingSummaries.create(List.of(savedItem.getId()));
+        searchEngine.index(savedItem);
+        return mapper.toItemDto(savedItem);
+    }
+
+    // Пакет сохраняется целиком или не сохраняется: вещи и их сводки бронирований в одной транзакции
+    @Override
+    @Transactional
+    public List<ItemImportResult> addItems(List<ItemDto> itemDtos, Long userId) {
+        if (itemDtos.size() > MAX_IMPORT_SIZE) {
+            throw new ValidationException(
+                    String.format("В пакете не может быть больше %d вещей.", MAX_IMPORT_SIZE));
+        }
+        User user = getUser(userId);
+
+        // Существование запросов проверяется одним запросом на весь пакет
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty()
+                ? Set.of()
+                : Set.copyOf(itemRequestRepository.findIdsByIdIn(requestIds));
+
+        List<ItemImportResult> results = new ArrayList<>(itemDtos.size());
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (int row = 0; row < itemDtos.size(); row++) {
+            ItemDto itemDto = itemDtos.get(row);
+            ItemImportResult result = new ItemImportResult(row, null, null);
+            // Строка, которую отклонила бы база данных, отклоняется отдельно и не срывает вставку пакета
+            String error = validateImportedItem(itemDto);
+            if (error != null) {
+                result.setError(error);
+            } else if (itemDto.getRequestId() != null && !existingRequestIds.contains(itemDto.getRequestId())) {
+                result.setError(String.format("Запрос с id = %d не найден.", itemDto.getRequestId()));
+            } else {
+                Item item = mapper.toItem(itemDto);
+                item.setId(null);
+                item.setOwner(user.getId());
+                items.add(item);
+            }
+            results.add(result);
+        }
+
+        // Вещи сохраняются в одной транзакции пакетными вставками, id выдаются блоками из последовательности
+        Iterator<Item> savedItems = itemRepository.saveAll(items).iterator();
+        List<Long> savedIds = new ArrayList<>(items.size());
+        for (ItemImportResult result : results) {
+            if (result.getError() == null) {
+                Item savedItem = savedItems.next();
+                searchEngine.index(savedItem);
+                result.setId(savedItem.getId());
+                savedIds.add(savedItem.getId());
+            }
+        }
+        bookingSummaries.create(savedIds);
+        return results;
+    }
+
+    private static String validateImportedItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Значение name не задано или пустое.";
+        }
+        if (itemDto.getName().length() > Item.NAME_MAX_LENGTH) {
+            return String.format("Значение name длиннее %d символов.", Item.NAME_MAX_LENGTH);
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Значение description не задано или пустое.";
+        }
+        if (itemDto.getDescription().length() > Item.DESCRIPTION_MAX_LENGTH) {
+            return String.format("Значение description длиннее %d символов.", Item.DESCRIPTION_MAX_LENGTH);
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Значение available = null.";
+        }
+        return null;
     }
 
     @Override
@@ -62,7 +158,9 @@ public class ItemServiceImpl implements ItemService {
                 );
             }
             mergeFields(itemDto, existItem);
-            return mapper.toItemDto(itemRepository.save(existItem));
+            Item savedItem = itemRepository.save(existItem);
+            searchEngine.index(savedItem);
+            return mapper.toItemDto(savedItem);
         } else {
             throw new ItemNotFoundException(String.format("Вещь с id = %d не найдена.", itemId));
         }
@@ -73,9 +171,13 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id = %d не найдена.", itemId)));
 
+        // Последнее и следующее бронирование видит только владелец вещи
         ItemDto itemDto = mapper.toItemDto(item);
-        itemDto.setLastBooking(getLastBooking(itemId, userId));
-        itemDto.setNextBooking(getNextBooking(itemId, userId));
+        if (item.getOwner().equals(userId)) {
+            ItemBookingSummary summary = bookingSummaries.findAllByItemIds(List.of(itemId)).get(itemId);
+            itemDto.setLastBooking(toLastBooking(summary));
+            itemDto.setNextBooking(toNextBooking(summary));
+        }
         itemDto.setComments(getComments(itemId));
 
         return itemDto;
@@ -90,11 +192,24 @@ public class ItemServiceImpl implements ItemService {
         PageRequest pageRequest = PageRequest.of(page, size, sort);
 
         Page<Item> items = itemRepository.findAllByOwner(user.getId(), pageRequest);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        // Бронирования и комментарии загружаются для всей страницы сразу, а не по запросу на каждую вещь
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = bookingSummaries.findAllByItemIds(itemIds);
+        Map<Long, List<ItemDto.ItemComment>> comments = commentRepository.findAllByItem_IdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        comment -> comment.getItem().getId(),
+                        Collectors.mapping(mapper::toItemDtoComment, Collectors.toList())));
+
         return items.stream().map(item -> {
             ItemDto itemDto = mapper.toItemDto(item);
-            itemDto.setLastBooking(getLastBooking(item.getId(), userId));
-            itemDto.setNextBooking(getNextBooking(item.getId(), userId));
-            itemDto.setComments(getComments(item.getId()));
+            itemDto.setLastBooking(toLastBooking(summaries.get(item.getId())));
+            itemDto.setNextBooking(toNextBooking(summaries.get(item.getId())));
+            itemDto.setComments(comments.getOrDefault(item.getId(), List.of()));
             return itemDto;
         }).collect(Collectors.toList());
     }
@@ -105,7 +220,7 @@ public class ItemServiceImpl implements ItemService {
         int page = from / size;
         PageRequest pageRequest = PageRequest.of(page, size);
 
-        Page<Item> items = itemRepository.searchItems(text, pageRequest);
+        List<Item> items = searchEngine.search(text, pageRequest);
         return items.stream().map(mapper::toItemDto).collect(Collectors.toList());
     }
 
@@ -113,20 +228,19 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto addComment(CommentDto commentDto, Long itemId, Long userId) {
 
         // Проверка наличия пользователя
-        User author = userRepository.findById(userId).orElseThrow(
+        User author = userCache.findById(userId).orElseThrow(
                 () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
         );
         // Проверка наличия вещи
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new ItemNotFoundException(String.format("Вещь itemId = %d не найден.", itemId)));
 
-        // Проверка, что комментарий оставляет арендатор вещи
-        bookingRepository.findFirstByBooker_IdAndItem_IdAndEndBeforeOrderByStartDesc(
-                userId,
-                itemId,
-                LocalDateTime.now()).orElseThrow(
-                () -> new ValidationException("Комментарии может оставлять только арендатор вещи.")
-        );
+        // Проверка, что комментарий оставляет арендатор вещи: архив читается, только если в BOOKINGS
+        // закончившегося бронирования нет
+        if (!bookingRepository.existsPastByBooker_IdAndItem_Id(userId, itemId, LocalDateTime.now())
+                && !bookingArchive.existsByBooker_IdAndItem_Id(userId, itemId)) {
+            throw new ValidationException("Комментарии может оставлять только арендатор вещи.");
+        }
 
         Comment comment = mapper.toComment(commentDto);
         comment.setItem(item);
@@ -140,7 +254,7 @@ public class ItemServiceImpl implements ItemService {
         if (userId == null || userId < 0) {
             throw new UserNotFoundException(String.format("Пользователь с id = %d не найден.", userId));
         }
-        Optional<User> user = userRepository.findById(userId);
+        Optional<User> user = userCache.findById(userId);
         if (user.isEmpty()) {
             throw new UserNotFoundException(String.format("Пользователь с id = %d не найден.", userId));
         }
@@ -153,28 +267,16 @@ public class ItemServiceImpl implements ItemService {
         if (source.getAvailable() != null) target.setAvailable(source.getAvailable());
     }
 
-    private ItemDto.Booking getLastBooking(Long itemId, Long userId) {
-        Optional<Booking> bookingOpt = bookingRepository.findFirstByItem_IdAndItem_OwnerAndEndBeforeOrderByEndDesc(
-                itemId,
-                userId,
-                LocalDateTime.now());
-        if (bookingOpt.isEmpty()) {
-            return null;
-        } else {
-            return new ItemDto.Booking(bookingOpt.get().getId(), bookingOpt.get().getBooker().getId());
-        }
+    private static ItemDto.Booking toLastBooking(ItemBookingSummary summary) {
+        return summary == null || summary.getLastBookingId() == null
+                ? null
+                : new ItemDto.Booking(summary.getLastBookingId(), summary.getLastBookerId());
     }
 
-    private ItemDto.Booking getNextBooking(Long itemId, Long userId) {
-        Optional<Booking> bookingOpt = bookingRepository.findFirstByItem_IdAndItem_OwnerAndEndAfterOrderByEnd(
-                itemId,
-                userId,
-                LocalDateTime.now());
-        if (bookingOpt.isEmpty()) {
-            return null;
-        } else {
-            return new ItemDto.Booking(bookingOpt.get().getId(), bookingOpt.get().getBooker().getId());
-        }
+    private static ItemDto.Booking toNextBooking(ItemBookingSummary summary) {
+        return summary == null || summary.getNextBookingId() == null
+                ? null
+                : new ItemDto.Booking(summary.getNextBookingId(), summary.getNextBookerId());
     }
 
     private List<ItemDto.ItemComment> getComments(Long itemId) {
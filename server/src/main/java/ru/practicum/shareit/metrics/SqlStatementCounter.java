@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Считает SQL-запросы, которые Hibernate готовит в текущем потоке между start и stop.
+ * <p>
+ * Подключается к Hibernate как StatementInspector и не меняет текст запроса. Вне start/stop
+ * запросы не считаются.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> counter = new ThreadLocal<>();
+
+    /**
+     * Начинает подсчёт в текущем потоке, сбрасывая незавершённый подсчёт.
+     */
+    public void start() {
+        counter.set(new int[1]);
+    }
+
+    /**
+     * Завершает подсчёт в текущем потоке и возвращает число запросов с момента start.
+     */
+    public int stop() {
+        int[] count = counter.get();
+        counter.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Записывает число SQL-запросов на один HTTP-запрос в shareit.sql.statements с тегами method и uri.
+ * Рост среднего или перцентилей для эндпоинта указывает на N+1 запросов.
+ */
+public class SqlStatementMetricsInterceptor implements HandlerInterceptor {
+
+    static final String SUMMARY_NAME = "shareit.sql.statements";
+
+    private final SqlStatementCounter counter;
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsInterceptor(SqlStatementCounter counter, MeterRegistry meterRegistry) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        counter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int statements = counter.stop();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(SUMMARY_NAME)
+                .description("Число SQL-запросов на HTTP-запрос")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
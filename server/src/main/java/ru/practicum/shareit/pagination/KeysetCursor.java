@@ -0,0 +1,51 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Позиция в выдаче, упорядоченной по (дата desc, id desc).
+ * <p>
+ * Клиент получает курсор в виде непрозрачной строки в заголовке {@value #NEXT_CURSOR_HEADER}
+ * и передаёт его в параметре cursor, чтобы получить следующую страницу. Пустой курсор означает первую страницу.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Граница заведомо позже любой даты в БД и при этом допустима для timestamp в PostgreSQL
+    private static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            Long.MAX_VALUE);
+
+    private LocalDateTime date;
+    private Long id;
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException(String.format("Некорректный курсор: %s", token));
+        }
+    }
+
+    public String encode() {
+        // Даты в БД хранятся с точностью до микросекунд
+        String value = date.truncatedTo(ChronoUnit.MICROS) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,7 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSliceDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import javax.validation.Valid;
@@ -43,8 +45,12 @@ public class ItemRequestController {
     public ResponseEntity<List<ItemRequestDto>> getItemRequestsFromOtherUsers(
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "10") @Positive Integer size,
-            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+            @RequestParam(required = false) String cursor) {
         log.info("Получен запрос на получение запросов на вещи других пользователей, from = {}, size = {}", from, size);
+        if (cursor != null) {
+            return toResponse(itemRequestService.getItemRequestsFromOtherUsersFromCursor(cursor, size, userId));
+        }
         return ResponseEntity.ok(itemRequestService.getItemRequestsFromOtherUsers(from, size, userId));
     }
 
@@ -54,4 +60,12 @@ public class ItemRequestController {
         log.info("Получен запрос на получение запроса на вещь, requestId={}", requestId);
         return ResponseEntity.ok(itemRequestService.getItemRequestById(requestId, userId));
     }
+
+    private ResponseEntity<List<ItemRequestDto>> toResponse(ItemRequestSliceDto slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getRequests());
+    }
 }
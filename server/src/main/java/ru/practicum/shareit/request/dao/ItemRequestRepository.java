@@ -1,17 +1,39 @@
 package ru.practicum.shareit.request.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends PagingAndSortingRepository<ItemRequest, Long> {
 
+    @Query("select r from ItemRequest r where r.requester.id = ?1 order by r.created desc")
     List<ItemRequest> findAllByRequester_IdOrderByCreatedDesc(Long requesterId);
 
-    Page<ItemRequest> findAllByRequester_IdIsNot(Long requesterId, Pageable pageable);
+    @Query("select r from ItemRequest r where r.requester.id <> ?1")
+    Slice<ItemRequest> findAllByRequester_IdIsNot(Long requesterId, Pageable pageable);
+
+    // Условие r.created <= :cursorCreated избыточно, но даёт планировщику диапазон по индексу (created, id)
+    @Query("select r from ItemRequest r where r.requester.id <> :userId" +
+            " and r.created <= :cursorCreated" +
+            " and (r.created < :cursorCreated or r.id < :cursorId)" +
+            " order by r.created desc, r.id desc")
+    Slice<ItemRequest> findKeysetByRequester_IdIsNot(@Param("userId") Long userId,
+                                                     @Param("cursorCreated") LocalDateTime cursorCreated,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.id in ?1")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Query("select r from ItemRequest r order by r.created desc, r.id desc")
+    Slice<ItemRequest> findNewest(Pageable pageable);
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница запросов на вещи, выбранная по курсору, и курсор следующей страницы (null, если страница последняя).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequestSliceDto {
+    private List<ItemRequestDto> requests;
+    private String nextCursor;
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.request.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Общий для всех пользователей снимок самых новых запросов на вещи для ленты запросов других пользователей.
+ * <p>
+ * Лента разных пользователей отличается только тем, что в ней нет собственных запросов, поэтому страница
+ * собирается из снимка отбором, если в снимке хватает строк. Снимок живёт не дольше ttl и сбрасывается
+ * при добавлении запроса. Вещи по запросам в снимок не входят и загружаются при каждом обращении.
+ * Нулевой размер или ttl отключают кэш.
+ */
+@Component
+public class ItemRequestFeedCache {
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final int capacity;
+
+    private final long ttlNanos;
+
+    private volatile Snapshot snapshot;
+
+    // Увеличивается при сбросе, чтобы снимок, загруженный до сброса, не был сохранён после него
+    private long generation;
+
+    public ItemRequestFeedCache(ItemRequestRepository itemRequestRepository,
+                                @Value("${shareit.requests.feed-cache.size:200}") int capacity,
+                                @Value("${shareit.requests.feed-cache.ttl:5s}") Duration ttl) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Страница ленты пользователя userId, начиная со строки offset, или пустой результат,
+     * если страница выходит за пределы снимка.
+     */
+    public Optional<Slice<ItemRequest>> page(Long userId, int offset, int size) {
+        return current().flatMap(current -> current.page(userId, request -> true, offset, size));
+    }
+
+    /**
+     * Страница ленты пользователя userId после позиции курсора или пустой результат,
+     * если страница выходит за пределы снимка.
+     */
+    public Optional<Slice<ItemRequest>> pageAfter(Long userId, KeysetCursor cursor, int size) {
+        Predicate<ItemRequest> after = request -> request.getCreated().isBefore(cursor.getDate())
+                || (request.getCreated().isEqual(cursor.getDate()) && request.getId() < cursor.getId());
+        return current().flatMap(current -> current.page(userId, after, 0, size));
+    }
+
+    public void evict() {
+        synchronized (this) {
+            generation++;
+            snapshot = null;
+        }
+    }
+
+    private Optional<Snapshot> current() {
+        if (capacity <= 0 || ttlNanos <= 0) {
+            return Optional.empty();
+        }
+
+        long now = System.nanoTime();
+        Snapshot current = snapshot;
+        if (current != null && now - current.loadedAt < ttlNanos) {
+            return Optional.of(current);
+        }
+
+        long loadedGeneration;
+        synchronized (this) {
+            loadedGeneration = generation;
+        }
+        Slice<ItemRequest> newest = itemRequestRepository.findNewest(PageRequest.of(0, capacity));
+        current = new Snapshot(newest.getContent(), !newest.hasNext(), now);
+        synchronized (this) {
+            if (generation == loadedGeneration) {
+                snapshot = current;
+            }
+        }
+        return Optional.of(current);
+    }
+
+    private static final class Snapshot {
+        private final List<ItemRequest> requests;
+        // В снимок попали все запросы из БД
+        private final boolean complete;
+        private final long loadedAt;
+
+        private Snapshot(List<ItemRequest> requests, boolean complete, long loadedAt) {
+            this.requests = requests;
+            this.complete = complete;
+            this.loadedAt = loadedAt;
+        }
+
+        private Optional<Slice<ItemRequest>> page(Long userId, Predicate<ItemRequest> filter, int offset, int size) {
+            // Лишняя строка показывает, есть ли следующая страница
+            List<ItemRequest> found = requests.stream()
+                    .filter(request -> !Objects.equals(request.getRequester().getId(), userId))
+                    .filter(filter)
+                    .skip(offset)
+                    .limit(size + 1L)
+                    .collect(Collectors.toList());
+
+            boolean hasNext = found.size() > size;
+            if (!hasNext && !complete) {
+                return Optional.empty();
+            }
+            List<ItemRequest> content = hasNext ? found.subList(0, size) : found;
+            return Optional.of(new SliceImpl<>(content, PageRequest.of(offset / size, size), hasNext));
+        }
+    }
+}
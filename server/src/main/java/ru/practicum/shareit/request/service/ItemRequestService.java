@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSliceDto;
 
 import java.util.List;
 
@@ -11,5 +12,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getItemRequestsFromOtherUsers(Integer from, Integer size, Long userId);
 
+    ItemRequestSliceDto getItemRequestsFromOtherUsersFromCursor(String cursor, Integer size, Long userId);
+
     ItemRequestDto getItemRequestById(Long requestId, Long userId);
 }
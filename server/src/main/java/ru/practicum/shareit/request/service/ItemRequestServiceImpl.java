@@ -2,22 +2,25 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import org.mapstruct.factory.Mappers;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSliceDto;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,10 +29,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     private final ItemRepository itemRepository;
 
+    private final ItemRequestFeedCache feedCache;
+
+    // id - второй ключ, чтобы порядок запросов с одинаковой датой не менялся между страницами
+    private static final Sort FEED_SORT = Sort.by(Sort.Direction.DESC, "created")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final ItemRequestMapper mapper = Mappers.getMapper(ItemRequestMapper.class);
 
     @Override
@@ -40,7 +49,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = mapper.toItemRequest(itemRequestDto);
 
         itemRequest.setRequester(user);
-        return mapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        ItemRequest savedItemRequest = itemRequestRepository.save(itemRequest);
+        feedCache.evict();
+        return mapper.toItemRequestDto(savedItemRequest);
     }
 
     @Override
@@ -50,29 +61,40 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User user = getUser(userId);
 
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequester_IdOrderByCreatedDesc(user.getId());
-        return itemRequests.stream().map(itemRequest -> {
-            ItemRequestDto itemRequestDto = mapper.toItemRequestDto(itemRequest);
-            itemRequestDto.setItems(getRequestItems(itemRequest.getId()));
-            return itemRequestDto;
-        }).collect(Collectors.toList());
+        return toItemRequestDtos(itemRequests);
     }
 
     @Override
     public List<ItemRequestDto> getItemRequestsFromOtherUsers(Integer from, Integer size, Long userId) {
 
         int page = from / size;
-        Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        PageRequest pageRequest = PageRequest.of(page, size);
-        Page<ItemRequest> itemRequests = itemRequestRepository.findAllByRequester_IdIsNot(
-                userId,
-                pageRequest
-        );
+        Slice<ItemRequest> itemRequests = feedCache.page(userId, page * size, size)
+                .orElseGet(() -> itemRequestRepository.findAllByRequester_IdIsNot(
+                        userId,
+                        PageRequest.of(page, size, FEED_SORT)
+                ));
 
-        return itemRequests.stream().map(itemRequest -> {
-            ItemRequestDto itemRequestDto = mapper.toItemRequestDto(itemRequest);
-            itemRequestDto.setItems(getRequestItems(itemRequest.getId()));
-            return itemRequestDto;
-        }).collect(Collectors.toList());
+        return toItemRequestDtos(itemRequests.getContent());
+    }
+
+    @Override
+    public ItemRequestSliceDto getItemRequestsFromOtherUsersFromCursor(String cursor, Integer size, Long userId) {
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Slice<ItemRequest> itemRequests = feedCache.pageAfter(userId, position, size)
+                .orElseGet(() -> itemRequestRepository.findKeysetByRequester_IdIsNot(
+                        userId,
+                        position.getDate(),
+                        position.getId(),
+                        PageRequest.of(0, size)
+                ));
+
+        String nextCursor = null;
+        if (itemRequests.hasNext()) {
+            ItemRequest last = itemRequests.getContent().get(itemRequests.getNumberOfElements() - 1);
+            nextCursor = new KeysetCursor(last.getCreated(), last.getId()).encode();
+        }
+        return new ItemRequestSliceDto(toItemRequestDtos(itemRequests.getContent()), nextCursor);
     }
 
     @Override
@@ -94,11 +116,31 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private User getUser(Long userId) {
-        return userRepository.findById(userId).orElseThrow(
+        return userCache.findById(userId).orElseThrow(
                 () -> new UserNotFoundException(String.format("Пользователь userId = %d не найден.", userId))
         );
     }
 
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+
+        // Вещи загружаются для всех запросов сразу, а не по запросу к базе на каждый запрос вещи
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemRequestDto.RequestItem>> items = itemRepository.findAllByRequestIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        Item::getRequest,
+                        Collectors.mapping(mapper::toItemRequestDtoItem, Collectors.toList())));
+
+        return itemRequests.stream().map(itemRequest -> {
+            ItemRequestDto itemRequestDto = mapper.toItemRequestDto(itemRequest);
+            itemRequestDto.setItems(items.getOrDefault(itemRequest.getId(), List.of()));
+            return itemRequestDto;
+        }).collect(Collectors.toList());
+    }
+
     private List<ItemRequestDto.RequestItem> getRequestItems(Long requestId) {
 
         List<Item> items = itemRepository.findAllByRequest(requestId);
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.Optional;
+
+/**
+ * Кэш пользователей по id для проверки автора запроса из заголовка X-Sharer-User-Id.
+ * <p>
+ * Кэшируются только найденные пользователи, поэтому добавление пользователя кэш не затрагивает.
+ * Изменение и удаление пользователя сбрасывают его запись. Размер, время жизни записей и сбор
+ * статистики задаются в spring.cache.caffeine.spec, метрики cache.gets доступны через actuator.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCache {
+
+    public static final String CACHE_NAME = "users";
+
+    private final UserRepository userRepository;
+
+    @Cacheable(cacheNames = CACHE_NAME, unless = "#result == null")
+    public Optional<User> findById(Long userId) {
+        return userRepository.findById(userId);
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME)
+    public void evict(Long userId) {
+    }
+}
@@ -19,6 +19,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final UserMapper mapper = Mappers.getMapper(UserMapper.class);
 
     @Override
@@ -47,7 +48,9 @@ public class UserServiceImpl implements UserService {
         UserDto existUserDto = getUserById(userId);
 
         mergeFields(userDto, existUserDto);
-        return mapper.toUserDto(userRepository.save(mapper.toUser(existUserDto)));
+        User savedUser = userRepository.save(mapper.toUser(existUserDto));
+        userCache.evict(userId);
+        return mapper.toUserDto(savedUser);
     }
 
     @Override
@@ -55,6 +58,7 @@ public class UserServiceImpl implements UserService {
         // Проверяем наличие пользователя, иначе будет выброшено UserNotFoundException
         getUserById(userId);
         userRepository.deleteById(userId);
+        userCache.evict(userId);
     }
 
     private void mergeFields(UserDto source, UserDto target) {
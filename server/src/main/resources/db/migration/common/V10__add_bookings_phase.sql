@@ -0,0 +1,16 @@
+-- Фаза бронирования (FUTURE, CURRENT, PAST): списки по состояниям CURRENT, PAST и FUTURE
+-- фильтруются по равенству фазы вместо диапазонов по start_date и end_date
+alter table BOOKINGS add column phase varchar(10) default 'FUTURE' not null;
+
+update BOOKINGS set phase = case
+    when end_date < localtimestamp then 'PAST'
+    when start_date <= localtimestamp then 'CURRENT'
+    else 'FUTURE' end;
+
+-- Бронирования пользователя и владельца в фазе, сортировка start_date desc, id desc (в т.ч. курсор)
+create index if not exists bookings_booker_phase_start_idx on BOOKINGS (booker_id, phase, start_date desc, id desc);
+create index if not exists bookings_owner_phase_start_idx on BOOKINGS (owner_id, phase, start_date desc, id desc);
+
+-- Фоновый сдвиг фаз: начавшиеся FUTURE и закончившиеся CURRENT
+create index if not exists bookings_phase_start_idx on BOOKINGS (phase, start_date);
+create index if not exists bookings_phase_end_idx on BOOKINGS (phase, end_date);
@@ -0,0 +1,42 @@
+-- Архив бронирований, закончившихся больше shareit.bookings.archive.after-days дней назад:
+-- BOOKINGS и её индексы не растут вместе с историей. Строки переносятся с теми же id
+create table if not exists BOOKINGS_ARCHIVE
+(
+    id         bigint not null,
+    start_date timestamp without time zone,
+    end_date   timestamp without time zone,
+    item_id    bigint not null,
+    owner_id   bigint not null,
+    booker_id  bigint not null,
+    status     varchar(30),
+    constraint bookings_archive_pk
+        primary key (id)
+);
+
+-- Списки пользователя и владельца, сортировка start_date desc, id desc (в т.ч. курсор)
+create index if not exists bookings_archive_booker_start_idx on BOOKINGS_ARCHIVE (booker_id, start_date desc, id desc);
+create index if not exists bookings_archive_owner_start_idx on BOOKINGS_ARCHIVE (owner_id, start_date desc, id desc);
+
+-- Проверка права оставить комментарий
+create index if not exists bookings_archive_booker_item_idx on BOOKINGS_ARCHIVE (booker_id, item_id);
+
+-- Последнее бронирование вещи для сводки ITEM_BOOKINGS, если в BOOKINGS его уже нет
+create index if not exists bookings_archive_item_end_idx on BOOKINGS_ARCHIVE (item_id, end_date);
+
+alter table BOOKINGS_ARCHIVE add constraint bookings_archive_item_owner_fk foreign key (item_id, owner_id)
+    references ITEMS (id, owner_id) on update cascade;
+
+alter table BOOKINGS_ARCHIVE add constraint bookings_archive_users_fk foreign key (booker_id)
+    references USERS (id);
+
+-- Пользователи, у которых есть бронирования в архиве (арендаторы и владельцы): списки остальных
+-- пользователей архив не читают. Отметка ставится при переносе и не снимается
+create table if not exists BOOKINGS_ARCHIVE_USERS
+(
+    user_id bigint not null,
+    constraint bookings_archive_users_pk
+        primary key (user_id)
+);
+
+alter table BOOKINGS_ARCHIVE_USERS add constraint bookings_archive_users_users_fk foreign key (user_id)
+    references USERS (id);
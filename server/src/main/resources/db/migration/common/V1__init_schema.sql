@@ -1,9 +1,3 @@
-drop table if exists COMMENTS;
-drop table if exists BOOKINGS;
-drop table if exists ITEMS;
-drop table if exists REQUESTS;
-drop table if exists USERS;
---------------------------------------
 create table if not exists USERS
 (
     ID    BIGINT generated by default as identity,
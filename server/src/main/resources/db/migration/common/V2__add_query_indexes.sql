@@ -0,0 +1,20 @@
+-- Бронирования пользователя: фильтр по booker_id, сортировка start_date desc, id desc (в т.ч. курсор)
+create index if not exists bookings_booker_start_idx on BOOKINGS (booker_id, start_date desc, id desc);
+
+-- Последнее/следующее бронирование вещи и проверка права на отзыв
+create index if not exists bookings_item_end_idx on BOOKINGS (item_id, end_date);
+
+-- Актуальные бронирования для индекса занятости при старте
+create index if not exists bookings_status_end_idx on BOOKINGS (status, end_date);
+
+-- Вещи владельца, сортировка по id
+create index if not exists items_owner_idx on ITEMS (owner_id, id);
+
+-- Вещи, добавленные в ответ на запрос
+create index if not exists items_request_idx on ITEMS (request_id);
+
+-- Отзывы к вещи
+create index if not exists comments_item_idx on COMMENTS (item_id);
+
+-- Собственные запросы пользователя, сортировка created desc
+create index if not exists requests_requestor_created_idx on REQUESTS (requestor_id, created desc);
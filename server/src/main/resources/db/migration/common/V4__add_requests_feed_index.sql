@@ -0,0 +1,2 @@
+-- Лента запросов других пользователей: сортировка created desc, id desc и выборка по курсору
+create index if not exists requests_created_idx on REQUESTS (created desc, id desc);
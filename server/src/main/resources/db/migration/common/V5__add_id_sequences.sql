@@ -0,0 +1,23 @@
+-- Id выдаются из последовательностей блоками по 50 (Hibernate pooled-lo, allocationSize = 50):
+-- одно обращение к последовательности на 50 вставок и пакетная вставка строк.
+-- Вставки в обход Hibernate берут id из тех же последовательностей через default
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists requests_seq start with 1 increment by 50;
+create sequence if not exists items_seq start with 1 increment by 50;
+create sequence if not exists bookings_seq start with 1 increment by 50;
+create sequence if not exists comments_seq start with 1 increment by 50;
+
+alter table USERS alter column ID drop identity;
+alter table USERS alter column ID set default nextval('users_seq');
+
+alter table REQUESTS alter column id drop identity;
+alter table REQUESTS alter column id set default nextval('requests_seq');
+
+alter table ITEMS alter column id drop identity;
+alter table ITEMS alter column id set default nextval('items_seq');
+
+alter table BOOKINGS alter column id drop identity;
+alter table BOOKINGS alter column id set default nextval('bookings_seq');
+
+alter table COMMENTS alter column id drop identity;
+alter table COMMENTS alter column id set default nextval('comments_seq');
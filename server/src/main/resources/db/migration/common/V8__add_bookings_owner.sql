@@ -0,0 +1,16 @@
+-- Владелец вещи в бронировании: списки владельца читаются одним диапазоном индекса без соединения с ITEMS
+alter table BOOKINGS add column owner_id bigint;
+
+update BOOKINGS b set owner_id = (select i.owner_id from ITEMS i where i.id = b.item_id);
+
+alter table BOOKINGS alter column owner_id set not null;
+
+-- Составной ключ не даёт записать владельца, отличного от владельца вещи,
+-- а смена владельца вещи каскадом переносит её бронирования
+alter table ITEMS add constraint items_id_owner_uq unique (id, owner_id);
+
+alter table BOOKINGS add constraint bookings_item_owner_fk foreign key (item_id, owner_id)
+    references ITEMS (id, owner_id) on update cascade;
+
+-- Бронирования владельца: фильтр по owner_id, сортировка start_date desc, id desc (в т.ч. курсор)
+create index if not exists bookings_owner_start_idx on BOOKINGS (owner_id, start_date desc, id desc);
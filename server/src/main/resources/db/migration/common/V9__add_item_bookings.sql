@@ -0,0 +1,34 @@
+-- Последнее и следующее бронирование вещи: карточка и список вещей читают их по первичному ключу
+create table if not exists ITEM_BOOKINGS
+(
+    item_id         bigint not null,
+    last_booking_id bigint,
+    last_booker_id  bigint,
+    last_end_date   timestamp without time zone,
+    next_booking_id bigint,
+    next_booker_id  bigint,
+    next_end_date   timestamp without time zone,
+    version         bigint not null,
+    constraint item_bookings_pk
+        primary key (item_id),
+    constraint item_bookings_items_fk
+        foreign key (item_id) references ITEMS (id)
+);
+
+-- Сводки, у которых следующее бронирование закончилось, для фонового пересчёта
+create index if not exists item_bookings_next_end_idx on ITEM_BOOKINGS (next_end_date);
+
+-- Сводки существующих вещей на момент миграции, дальше их сдвигает фоновый пересчёт
+insert into ITEM_BOOKINGS (item_id, last_booking_id, last_booker_id, last_end_date,
+                           next_booking_id, next_booker_id, next_end_date, version)
+select s.item_id, l.id, l.booker_id, l.end_date, n.id, n.booker_id, n.end_date, 0
+from (select i.id as item_id,
+             (select lb.id from BOOKINGS lb
+              where lb.item_id = i.id and lb.end_date < localtimestamp
+              order by lb.end_date desc, lb.id fetch first 1 rows only) as last_id,
+             (select nb.id from BOOKINGS nb
+              where nb.item_id = i.id and nb.end_date > localtimestamp
+              order by nb.end_date, nb.id fetch first 1 rows only) as next_id
+      from ITEMS i) s
+         left join BOOKINGS l on l.id = s.last_id
+         left join BOOKINGS n on n.id = s.next_id;
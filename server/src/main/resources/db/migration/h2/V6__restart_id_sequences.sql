@@ -0,0 +1,6 @@
+-- Последовательности продолжают нумерацию после id, выданных до перехода на последовательности
+alter sequence users_seq restart with (select coalesce(max(id), 0) + 1 from USERS);
+alter sequence requests_seq restart with (select coalesce(max(id), 0) + 1 from REQUESTS);
+alter sequence items_seq restart with (select coalesce(max(id), 0) + 1 from ITEMS);
+alter sequence bookings_seq restart with (select coalesce(max(id), 0) + 1 from BOOKINGS);
+alter sequence comments_seq restart with (select coalesce(max(id), 0) + 1 from COMMENTS);
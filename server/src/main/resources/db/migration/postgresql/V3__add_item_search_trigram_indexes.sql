@@ -0,0 +1,7 @@
+-- Поиск вещей по подстроке: lower(name/description) like '%text%'.
+-- B-tree такой шаблон не обслуживает, триграммный GIN-индекс - обслуживает (при длине текста от 3 символов)
+create extension if not exists pg_trgm;
+
+create index if not exists items_name_trgm_idx on ITEMS using gin (lower(name) gin_trgm_ops);
+
+create index if not exists items_description_trgm_idx on ITEMS using gin (lower(description) gin_trgm_ops);
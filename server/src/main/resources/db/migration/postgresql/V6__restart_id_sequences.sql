@@ -0,0 +1,6 @@
+-- Последовательности продолжают нумерацию после id, выданных до перехода на последовательности
+select setval('users_seq', (select coalesce(max(id), 0) + 1 from USERS), false);
+select setval('requests_seq', (select coalesce(max(id), 0) + 1 from REQUESTS), false);
+select setval('items_seq', (select coalesce(max(id), 0) + 1 from ITEMS), false);
+select setval('bookings_seq', (select coalesce(max(id), 0) + 1 from BOOKINGS), false);
+select setval('comments_seq', (select coalesce(max(id), 0) + 1 from COMMENTS), false);
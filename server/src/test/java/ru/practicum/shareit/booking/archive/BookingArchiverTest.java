@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.bookings.archive.after-days=30"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = BEFORE_EACH_TEST_METHOD)
+class BookingArchiverTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository archiveRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArchivedBookingUsers archivedUsers;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private BookingArchiver archiver;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    // Id в порядке start desc: будущее, недавно закончившееся и три закончившихся больше 30 дней назад
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        archiver = new BookingArchiver(bookingRepository, archiveRepository, 30, 2);
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        item = itemRepository.save(new Item(null, "Item", "Description", true, owner.getId(), null));
+        book(now.plusDays(1), now.plusDays(2));
+        book(now.minusDays(10), now.minusDays(9));
+        book(now.minusDays(40), now.minusDays(39));
+        book(now.minusDays(50), now.minusDays(49));
+        book(now.minusDays(60), now.minusDays(59));
+    }
+
+    @Test
+    void archiveMovesOldBookingsInBatches() {
+        assertEquals(3, archiver.archive(now));
+        assertEquals(0, archiver.archive(now));
+        entityManager.clear();
+
+        List<Long> hot = new ArrayList<>();
+        bookingRepository.findAll(Sort.by("id")).forEach(booking -> hot.add(booking.getId()));
+        List<Long> archivedIds = new ArrayList<>();
+        archiveRepository.findAll(Sort.by("id")).forEach(booking -> archivedIds.add(booking.getId()));
+        assertEquals(ids.subList(0, 2), hot);
+        assertEquals(ids.subList(2, 5), archivedIds);
+        ArchivedBooking archived = archiveRepository.findById(ids.get(2)).orElseThrow();
+        assertEquals(owner.getId(), archived.getOwner());
+        assertEquals(booker.getId(), archived.getBooker().getId());
+        assertEquals(BookingStatus.APPROVED, archived.getStatus());
+
+        // Без графа загрузки вещь и арендатор остаются прокси и после equals и toString
+        entityManager.clear();
+        ArchivedBooking lazy = entityManager.find(ArchivedBooking.class, ids.get(2));
+        assertEquals(archived, lazy);
+        assertTrue(lazy.toString().contains("id=" + ids.get(2)));
+        assertFalse(Hibernate.isInitialized(lazy.getItem()));
+        assertFalse(Hibernate.isInitialized(lazy.getBooker()));
+    }
+
+    @Test
+    void listingsContinueInArchive() {
+        // Пока архив пуст, список арендатора его не читает, а отрицательный ответ о пользователе не кэшируется
+        assertEquals(ids.subList(1, 5),
+                resultIds(bookingService.getBookingsByUserId("PAST", booker.getId(), 0, 10)));
+        assertFalse(archivedUsers.contains(booker.getId()));
+
+        archiver.archive(now);
+        entityManager.clear();
+        assertTrue(archivedUsers.contains(booker.getId()));
+        assertTrue(archivedUsers.contains(owner.getId()));
+
+        List<BookingResultDto> past = bookingService.getBookingsByUserId("PAST", booker.getId(), 0, 10);
+        assertEquals(ids.subList(1, 5), resultIds(past));
+        List<BookingResultDto> all = bookingService.getBookingsItemsByUserId("ALL", owner.getId(), 2, 2);
+        assertEquals(ids.subList(2, 4), resultIds(all));
+
+        List<Long> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingSliceDto slice = bookingService.getBookingsItemsByUserIdFromCursor("PAST", owner.getId(),
+                    cursor, 3);
+            pages.addAll(resultIds(slice.getBookings()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        assertEquals(ids.subList(1, 5), pages);
+
+        assertEquals(ids.get(4), bookingService.getBookingById(ids.get(4), booker.getId()).getId());
+    }
+
+    @Test
+    void commentOnArchivedBooking() {
+        archiver.archive(now);
+        bookingRepository.deleteById(ids.get(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        CommentDto comment = itemService.addComment(
+                new CommentDto(null, "Всё исправно", item.getId(), booker.getId(), null, null),
+                item.getId(), booker.getId());
+
+        assertNotNull(comment.getId());
+    }
+
+    private void book(LocalDateTime start, LocalDateTime end) {
+        ids.add(bookingRepository.save(new Booking(null, start, end, item, booker, BookingStatus.APPROVED)).getId());
+    }
+
+    private static List<Long> resultIds(List<BookingResultDto> bookings) {
+        return bookings.stream().map(BookingResultDto::getId).collect(Collectors.toList());
+    }
+}
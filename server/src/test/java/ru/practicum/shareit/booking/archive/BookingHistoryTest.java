@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class BookingHistoryTest {
+
+    private static final long USER_ID = 1L;
+
+    private final ArchivedBookingUsers archivedUsers = Mockito.mock(ArchivedBookingUsers.class);
+
+    private final BookingHistory history = new BookingHistory(archivedUsers, 30);
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private final AtomicInteger hotReads = new AtomicInteger();
+
+    private final AtomicInteger archiveReads = new AtomicInteger();
+
+    @BeforeEach
+    void init() {
+        when(archivedUsers.contains(USER_ID)).thenReturn(true);
+    }
+
+    @Test
+    void pageWithinHotWindowDoesNotReadArchive() {
+        List<BookingResultDto> hot = List.of(booking(5, now.minusDays(1)), booking(4, now.minusDays(2)));
+
+        List<BookingResultDto> page = history.page(USER_ID, p -> new SliceImpl<>(hot), archived(List.of()),
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of(5L, 4L), ids(page));
+        assertEquals(0, archiveReads.get());
+    }
+
+    @Test
+    void pagePastHotWindowMergesArchive() {
+        // Бронирование 3 началось раньше границы архива, но ещё не закончилось и осталось в BOOKINGS
+        List<BookingResultDto> hot = List.of(booking(5, now.minusDays(1)), booking(3, now.minusDays(40)));
+        List<BookingResultDto> archived = List.of(booking(2, now.minusDays(35)), booking(1, now.minusDays(50)));
+
+        List<BookingResultDto> page = history.page(USER_ID, hotSlices(hot), archived(archived), PageRequest.of(1, 2));
+
+        assertEquals(List.of(3L, 1L), ids(page));
+        assertEquals(1, archiveReads.get());
+    }
+
+    @Test
+    void firstPageReusesHotResult() {
+        List<BookingResultDto> hot = List.of(booking(5, now.minusDays(1)));
+        List<BookingResultDto> archived = List.of(booking(2, now.minusDays(35)), booking(1, now.minusDays(50)));
+
+        List<BookingResultDto> page = history.page(USER_ID, hotSlices(hot), archived(archived),
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of(5L, 2L), ids(page));
+        assertEquals(1, hotReads.get());
+        assertEquals(1, archiveReads.get());
+    }
+
+    @Test
+    void pageOfUserWithoutArchivedBookingsDoesNotReadArchive() {
+        when(archivedUsers.contains(USER_ID)).thenReturn(false);
+        List<BookingResultDto> hot = List.of(booking(5, now.minusDays(1)), booking(3, now.minusDays(40)));
+
+        List<BookingResultDto> page = history.page(USER_ID, hotSlices(hot), archived(List.of()),
+                PageRequest.of(0, 5));
+        Slice<BookingResultDto> slice = history.slice(USER_ID, hotSlices(hot), archived(List.of()),
+                PageRequest.of(0, 5));
+
+        assertEquals(List.of(5L, 3L), ids(page));
+        assertEquals(List.of(5L, 3L), ids(slice.getContent()));
+        assertFalse(slice.hasNext());
+        assertEquals(0, archiveReads.get());
+    }
+
+    @Test
+    void sliceWithinHotWindowDoesNotReadArchive() {
+        Slice<BookingResultDto> hot = new SliceImpl<>(List.of(booking(5, now.minusDays(1))),
+                PageRequest.of(0, 1), true);
+
+        Slice<BookingResultDto> slice = history.slice(USER_ID, p -> hot, archived(List.of()), PageRequest.of(0, 1));
+
+        assertEquals(List.of(5L), ids(slice.getContent()));
+        assertTrue(slice.hasNext());
+        assertEquals(0, archiveReads.get());
+    }
+
+    @Test
+    void sliceContinuesInArchive() {
+        List<BookingResultDto> hot = List.of(booking(5, now.minusDays(1)));
+        List<BookingResultDto> archived = List.of(booking(2, now.minusDays(35)), booking(1, now.minusDays(50)));
+
+        Slice<BookingResultDto> slice = history.slice(USER_ID, hotSlices(hot), archived(archived),
+                PageRequest.of(0, 2));
+        assertEquals(List.of(5L, 2L), ids(slice.getContent()));
+        assertTrue(slice.hasNext());
+
+        slice = history.slice(USER_ID, hotSlices(List.of()), archived(archived.subList(1, 2)),
+                PageRequest.of(0, 2));
+        assertEquals(List.of(1L), ids(slice.getContent()));
+        assertFalse(slice.hasNext());
+    }
+
+    @Test
+    void pageKeepsBookingMovedBetweenReadsOnce() {
+        // Бронирование 3 перенесено в архив после выборки из BOOKINGS и попало в обе выборки
+        List<BookingResultDto> hot = List.of(booking(5, now.minusDays(1)), booking(3, now.minusDays(40)));
+        List<BookingResultDto> archived = List.of(booking(3, now.minusDays(40)), booking(2, now.minusDays(45)),
+                booking(1, now.minusDays(50)));
+
+        List<BookingResultDto> first = history.page(USER_ID, hotSlices(hot), archived(archived),
+                PageRequest.of(0, 3));
+        List<BookingResultDto> second = history.page(USER_ID, hotSlices(hot), archived(archived),
+                PageRequest.of(1, 3));
+
+        assertEquals(List.of(5L, 3L, 2L), ids(first));
+        assertEquals(List.of(1L), ids(second));
+    }
+
+    @Test
+    void sliceKeepsBookingMovedBetweenReadsOnce() {
+        List<BookingResultDto> hot = List.of(booking(3, now.minusDays(40)));
+        List<BookingResultDto> archived = List.of(booking(3, now.minusDays(40)), booking(2, now.minusDays(45)));
+
+        Slice<BookingResultDto> slice = history.slice(USER_ID, hotSlices(hot), archived(archived),
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of(3L, 2L), ids(slice.getContent()));
+        assertFalse(slice.hasNext());
+    }
+
+    private Function<Pageable, Slice<BookingResultDto>> hotSlices(List<BookingResultDto> bookings) {
+        return pageable -> {
+            hotReads.incrementAndGet();
+            return slice(bookings, pageable);
+        };
+    }
+
+    private Function<Pageable, Slice<BookingResultDto>> archived(List<BookingResultDto> bookings) {
+        return pageable -> {
+            archiveReads.incrementAndGet();
+            return slice(bookings, pageable);
+        };
+    }
+
+    private static Slice<BookingResultDto> slice(List<BookingResultDto> bookings, Pageable pageable) {
+        List<BookingResultDto> content = bookings.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return new SliceImpl<>(content, pageable, bookings.size() > pageable.getOffset() + pageable.getPageSize());
+    }
+
+    private static BookingResultDto booking(long id, LocalDateTime start) {
+        return new BookingResultDto(id, start, start.plusDays(1), 1L, "Item", 2L, BookingStatus.APPROVED);
+    }
+
+    private static List<Long> ids(List<BookingResultDto> bookings) {
+        return bookings.stream().map(BookingResultDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingAvailabilityIndexTest {
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private final Item item = new Item(1L, "Item1", "Item 1 description", true, 1L, null);
+    private final User booker = new User(2L, "User2", "user2@mail.ru");
+
+    private BookingAvailabilityIndex index;
+
+    @BeforeEach
+    void init() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findWindowsByStatusInAndEndAfter(Mockito.anyCollection(),
+                Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        new BookingWindow(1L, item.getId(), base, base.plusDays(10)),
+                        new BookingWindow(2L, item.getId(), base.plusDays(2), base.plusDays(3)),
+                        new BookingWindow(3L, item.getId(), base.plusDays(20), base.plusDays(21))
+                ));
+
+        index = new BookingAvailabilityIndex(bookingRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void isFree() {
+        // Пересечение с длинным бронированием, начавшимся раньше короткого
+        assertFalse(index.isFree(item.getId(), base.plusDays(5), base.plusDays(6)));
+        assertFalse(index.isFree(item.getId(), base.minusDays(1), base.plusDays(1)));
+        assertFalse(index.isFree(item.getId(), base.plusDays(19), base.plusDays(25)));
+
+        // Интервалы полуоткрытые: окончание одного может совпадать с началом другого
+        assertTrue(index.isFree(item.getId(), base.plusDays(10), base.plusDays(20)));
+        assertTrue(index.isFree(item.getId(), base.minusDays(1), base));
+        assertTrue(index.isFree(item.getId(), base.plusDays(21), base.plusDays(30)));
+        assertTrue(index.isFree(2L, base, base.plusDays(10)));
+    }
+
+    @Test
+    void reserveAndRelease() {
+        Booking booking = new Booking(null, base.plusDays(12), base.plusDays(14), item, booker,
+                BookingStatus.WAITING);
+        Booking saved = new Booking(4L, booking.getStart(), booking.getEnd(), item, booker, BookingStatus.WAITING);
+
+        Optional<Booking> reserved = index.reserve(booking, b -> saved);
+        assertTrue(reserved.isPresent());
+        assertEquals(4L, reserved.get().getId());
+        assertFalse(index.isFree(item.getId(), base.plusDays(13), base.plusDays(15)));
+
+        Booking overlapping = new Booking(null, base.plusDays(13), base.plusDays(15), item, booker,
+                BookingStatus.WAITING);
+        assertTrue(index.reserve(overlapping, b -> b).isEmpty());
+
+        // Подтверждение уже занятого интервала не считается пересечением с самим собой
+        saved.setStatus(BookingStatus.APPROVED);
+        assertTrue(index.reserve(saved, b -> b).isPresent());
+
+        index.release(saved);
+        assertTrue(index.isFree(item.getId(), base.plusDays(13), base.plusDays(15)));
+    }
+}
@@ -12,7 +12,9 @@ import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingParamDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -23,6 +25,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -119,4 +122,36 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(Collections.singletonList(bookingResultDto))));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsByUserIdFromCursor() throws Exception {
+        when(bookingService.getBookingsByUserIdFromCursor(eq("ALL"), eq(1L), eq(""), eq(10)))
+                .thenReturn(new BookingSliceDto(Collections.singletonList(bookingResultDto), "next"));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "")
+                        .param("size", "10")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(content().json(mapper.writeValueAsString(Collections.singletonList(bookingResultDto))));
+    }
+
+    @Test
+    void getBookingsItemsByUserIdFromCursor() throws Exception {
+        when(bookingService.getBookingsItemsByUserIdFromCursor(eq("ALL"), eq(1L), eq("abc"), eq(10)))
+                .thenReturn(new BookingSliceDto(Collections.singletonList(bookingResultDto), null));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "abc")
+                        .param("size", "10")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER))
+                .andExpect(content().json(mapper.writeValueAsString(Collections.singletonList(bookingResultDto))));
+    }
+}
@@ -1,19 +1,28 @@
 package ru.practicum.shareit.booking.dao;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPhase;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -68,84 +77,204 @@ class BookingRepositoryTest {
         assertNotNull(booking.getId());
     }
 
+    @Test
+    void bookingEqualsAndToStringDoNotLoadAssociations() {
+        User user = userRepository.save(new User(null, "User1", "user1@mail.ru"));
+        Item item1 = itemRepository.save(new Item(null, "Item1", "Item 1 description", true, user.getId(), null));
+        Booking saved = bookingRepository.save(new Booking(null, LocalDateTime.now().plusMonths(1),
+                LocalDateTime.now().plusMonths(2), item1, user, BookingStatus.WAITING));
+        em.flush();
+        em.clear();
+
+        Booking loaded = em.find(Booking.class, saved.getId());
+
+        assertEquals(saved, loaded);
+        assertEquals(saved.hashCode(), loaded.hashCode());
+        assertNotEquals(new Booking(), new Booking());
+        assertTrue(loaded.toString().contains("id=" + saved.getId()));
+        assertFalse(Hibernate.isInitialized(loaded.getItem()));
+        assertFalse(Hibernate.isInitialized(loaded.getBooker()));
+    }
+
     @Test
     void findAllByOwner_IdOrderByStartDesc() {
         prepareData();
 
-        List<Booking> res = bookingRepository.findAllByOwner_Id(1L, Pageable.unpaged())
+        List<BookingResultDto> res = bookingRepository.findAllByOwner_Id(1L, Pageable.unpaged())
                 .get().collect(Collectors.toList());
 
         assertEquals(1, res.size());
         assertEquals(1L, res.get(0).getId());
-        assertEquals(user, res.get(0).getBooker());
-        assertEquals(item, res.get(0).getItem());
+        assertEquals(user.getId(), res.get(0).getBooker().getId());
+        assertEquals(item.getId(), res.get(0).getItem().getId());
+        assertEquals(item.getName(), res.get(0).getItem().getName());
         assertEquals(booking.getStatus(), res.get(0).getStatus());
     }
 
     @Test
-    void findAllByOwner_IdCurrentByDate() {
+    void findByOwner_IdAndPhase() {
         prepareData();
-
-        List<Booking> res = bookingRepository.findAllByOwner_IdCurrentByDate(1L,
-                        LocalDateTime.now().plusMonths(2),
-                        Pageable.unpaged())
-                .get().collect(Collectors.toList());
-
-        assertEquals(1, res.size());
-        assertEquals(1L, res.get(0).getId());
-        assertEquals(user, res.get(0).getBooker());
-        assertEquals(item, res.get(0).getItem());
-        assertEquals(booking.getStatus(), res.get(0).getStatus());
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, user,
+                BookingStatus.APPROVED));
+        Booking current = bookingRepository.save(new Booking(null, now.minusDays(1), now.plusDays(1), item, user,
+                BookingStatus.APPROVED));
+
+        assertEquals(BookingPhase.PAST, past.getPhase());
+        assertEquals(BookingPhase.CURRENT, current.getPhase());
+        assertEquals(BookingPhase.FUTURE, booking.getPhase());
+        assertEquals(List.of(past.getId()), findOwnerIds(BookingPhase.PAST, now));
+        assertEquals(List.of(current.getId()), findOwnerIds(BookingPhase.CURRENT, now));
+        assertEquals(List.of(booking.getId()), findOwnerIds(BookingPhase.FUTURE, now));
     }
 
     @Test
-    void findAllByOwner_IdAndEndBefore() {
+    void findByOwner_IdAndLaggingPhase() {
         prepareData();
 
-        List<Booking> res = bookingRepository.findAllByOwner_IdAndEndBefore(1L,
-                        LocalDateTime.now().plusMonths(4),
-                        Pageable.unpaged())
-                .get().collect(Collectors.toList());
+        // Фаза в строке не сдвинута, бронирование попадает в список по датам
+        LocalDateTime afterStart = booking.getStart().plusDays(1);
+        assertEquals(List.of(booking.getId()), findOwnerIds(BookingPhase.CURRENT, afterStart));
+        assertTrue(findOwnerIds(BookingPhase.FUTURE, afterStart).isEmpty());
 
-        assertEquals(1, res.size());
-        assertEquals(1L, res.get(0).getId());
-        assertEquals(user, res.get(0).getBooker());
-        assertEquals(item, res.get(0).getItem());
-        assertEquals(booking.getStatus(), res.get(0).getStatus());
+        LocalDateTime afterEnd = booking.getEnd().plusDays(1);
+        assertEquals(List.of(booking.getId()), findOwnerIds(BookingPhase.PAST, afterEnd));
+        assertTrue(findOwnerIds(BookingPhase.CURRENT, afterEnd).isEmpty());
+        assertEquals(BookingPhase.FUTURE, bookingRepository.findById(booking.getId()).orElseThrow().getPhase());
     }
 
     @Test
-    void findAllByOwner_IdAndStartAfter() {
+    void findByOwner_IdAndLaggingCurrentPhase() {
         prepareData();
+        LocalDateTime now = LocalDateTime.now();
+        Booking current = bookingRepository.save(new Booking(null, now.minusDays(1), now.plusDays(1), item, user,
+                BookingStatus.APPROVED));
+        assertEquals(BookingPhase.CURRENT, current.getPhase());
+
+        // Закончившееся CURRENT-бронирование, которое сдвиг ещё не перевёл в PAST
+        LocalDateTime afterEnd = current.getEnd().plusHours(1);
+        assertEquals(List.of(current.getId()), findOwnerIds(BookingPhase.PAST, afterEnd));
+        assertTrue(findOwnerIds(BookingPhase.CURRENT, afterEnd).isEmpty());
+    }
 
-        List<Booking> res = bookingRepository.findAllByOwner_IdAndStartAfter(1L,
-                        LocalDateTime.now(),
-                        Pageable.unpaged())
-                .get().collect(Collectors.toList());
+    @Test
+    void advancePhaseByIdInSkipsCurrentToPast() {
+        prepareData();
 
-        assertEquals(1, res.size());
-        assertEquals(1L, res.get(0).getId());
-        assertEquals(user, res.get(0).getBooker());
-        assertEquals(item, res.get(0).getItem());
-        assertEquals(booking.getStatus(), res.get(0).getStatus());
+        // Бронирование, которое к date и началось, и закончилось, сразу становится PAST
+        assertEquals(List.of(booking.getId()),
+                bookingRepository.findStartedIds(booking.getEnd().plusDays(1), PageRequest.of(0, 10)));
+        assertEquals(1, bookingRepository.advancePhaseByIdIn(List.of(booking.getId()), booking.getEnd().plusDays(1)));
+        em.clear();
+
+        assertEquals(List.of(booking.getId()), findOwnerIds(BookingPhase.PAST, booking.getEnd().plusDays(1)));
+        assertTrue(bookingRepository.findEndedIds(booking.getEnd().plusDays(1), PageRequest.of(0, 10)).isEmpty());
     }
 
     @Test
     void findAllByOwner_IdAndStatus() {
         prepareData();
 
-        List<Booking> res = bookingRepository.findAllByOwner_IdAndStatus(1L,
+        List<BookingResultDto> res = bookingRepository.findAllByOwner_IdAndStatus(1L,
                         BookingStatus.WAITING,
                         Pageable.unpaged())
                 .get().collect(Collectors.toList());
 
         assertEquals(1, res.size());
         assertEquals(1L, res.get(0).getId());
-        assertEquals(user, res.get(0).getBooker());
-        assertEquals(item, res.get(0).getItem());
+        assertEquals(user.getId(), res.get(0).getBooker().getId());
+        assertEquals(item.getId(), res.get(0).getItem().getId());
+        assertEquals(item.getName(), res.get(0).getItem().getName());
         assertEquals(booking.getStatus(), res.get(0).getStatus());
     }
 
+    @Test
+    void findAllByOwner_IdFollowsItemOwnerChange() {
+        prepareData();
+        assertEquals(item.getOwner(), booking.getOwner());
+
+        User newOwner = userRepository.save(new User(2L, "User2", "user2@mail.ru"));
+        item.setOwner(newOwner.getId());
+        itemRepository.save(item);
+        em.flush();
+
+        assertTrue(bookingRepository.findAllByOwner_Id(user.getId(), Pageable.unpaged()).isEmpty());
+        List<Long> ids = bookingRepository.findAllByOwner_Id(newOwner.getId(), Pageable.unpaged())
+                .map(BookingResultDto::getId)
+                .toList();
+        assertEquals(List.of(booking.getId()), ids);
+    }
+
+    @Test
+    void findLastAndNextByItem_IdIn() {
+        prepareData();
+
+        Item item2 = new Item(null, "Item2", "Item 2 description", true, user.getId(), null);
+        itemRepository.save(item2);
+
+        Booking past = new Booking(null, LocalDateTime.now().minusMonths(3), LocalDateTime.now().minusMonths(2),
+                item2, user, BookingStatus.APPROVED);
+        Booking lastPast = new Booking(null, LocalDateTime.now().minusMonths(2), LocalDateTime.now().minusMonths(1),
+                item2, user, BookingStatus.APPROVED);
+        bookingRepository.save(past);
+        bookingRepository.save(lastPast);
+
+        List<Long> itemIds = List.of(item.getId(), item2.getId());
+
+        List<Booking> last = bookingRepository.findLastByItem_IdIn(itemIds, LocalDateTime.now());
+        assertEquals(1, last.size());
+        assertEquals(lastPast.getId(), last.get(0).getId());
+
+        List<Booking> next = bookingRepository.findNextByItem_IdIn(itemIds, LocalDateTime.now());
+        assertEquals(1, next.size());
+        assertEquals(booking.getId(), next.get(0).getId());
+    }
+
+    @Test
+    void findKeysetByBooker_Id() {
+        prepareData();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 4; i++) {
+            // У двух бронирований одинаковое начало: порядок между ними задаёт id
+            bookingRepository.save(new Booking(null, start.plusDays(i / 2), start.plusDays(10), item, user,
+                    BookingStatus.APPROVED));
+        }
+
+        KeysetCursor cursor = KeysetCursor.decode(null);
+        List<Long> ids = new ArrayList<>();
+        Slice<BookingResultDto> page;
+        do {
+            page = bookingRepository.findKeysetByBooker_Id(user.getId(), cursor.getDate(), cursor.getId(),
+                    PageRequest.of(0, 2));
+            page.forEach(b -> ids.add(b.getId()));
+            BookingResultDto last = page.getContent().get(page.getNumberOfElements() - 1);
+            cursor = new KeysetCursor(last.getStart(), last.getId());
+        } while (page.hasNext());
+
+        List<Long> expected = bookingRepository.findAllByBooker_Id(user.getId(),
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id")))
+                .map(BookingResultDto::getId)
+                .toList();
+        assertEquals(5, ids.size());
+        assertEquals(expected, ids);
+    }
+
+    private List<Long> findOwnerIds(BookingPhase phase, LocalDateTime now) {
+        Slice<BookingResultDto> bookings;
+        switch (phase) {
+            case CURRENT:
+                bookings = bookingRepository.findCurrentByOwner_Id(user.getId(), now, Pageable.unpaged());
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastByOwner_Id(user.getId(), now, Pageable.unpaged());
+                break;
+            default:
+                bookings = bookingRepository.findFutureByOwner_Id(user.getId(), now, Pageable.unpaged());
+        }
+        return bookings.map(BookingResultDto::getId).toList();
+    }
+
     private void prepareData() {
         user = new User(1L, "User1", "user1@mail.ru");
         userRepository.save(user);
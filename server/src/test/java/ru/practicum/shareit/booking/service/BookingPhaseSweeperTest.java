@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = BEFORE_EACH_TEST_METHOD)
+class BookingPhaseSweeperTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void advanceMovesPhasesInBatches() {
+        BookingPhaseSweeper sweeper = new BookingPhaseSweeper(bookingRepository, 2);
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "Item", "Description", true, owner.getId(), null));
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ids.add(bookingRepository.save(new Booking(null, now.plusHours(i), now.plusHours(i).plusMinutes(30),
+                    item, booker, BookingStatus.APPROVED)).getId());
+        }
+
+        // Пакеты по 2: начались бронирования 1-3, из них 1 и 2 уже закончились, 3 ещё идёт
+        assertEquals(3, sweeper.advance(now.plusHours(3).plusMinutes(15)));
+        assertEquals(List.of(BookingPhase.PAST, BookingPhase.PAST, BookingPhase.CURRENT,
+                BookingPhase.FUTURE, BookingPhase.FUTURE), phases(ids));
+
+        assertEquals(2, sweeper.advance(now.plusHours(4).plusMinutes(10)));
+        assertEquals(List.of(BookingPhase.PAST, BookingPhase.PAST, BookingPhase.PAST,
+                BookingPhase.CURRENT, BookingPhase.FUTURE), phases(ids));
+        assertEquals(0, sweeper.advance(now.plusHours(4).plusMinutes(10)));
+
+        assertEquals(2, sweeper.advance(now.plusDays(1)));
+        assertEquals(List.of(BookingPhase.PAST, BookingPhase.PAST, BookingPhase.PAST,
+                BookingPhase.PAST, BookingPhase.PAST), phases(ids));
+    }
+
+    private List<BookingPhase> phases(List<Long> ids) {
+        List<BookingPhase> phases = new ArrayList<>();
+        for (Long id : ids) {
+            phases.add(bookingRepository.findById(id).orElseThrow().getPhase());
+        }
+        return phases;
+    }
+}
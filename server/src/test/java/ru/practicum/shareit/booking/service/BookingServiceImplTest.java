@@ -1,24 +1,39 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
 import org.mockito.Mockito;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.archive.ArchivedBookingUsers;
+import ru.practicum.shareit.booking.archive.BookingHistory;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
 import ru.practicum.shareit.booking.dto.BookingParamDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.exception.ApproveNotOwnerException;
 import ru.practicum.shareit.booking.exception.BookerOrOwnerException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryStore;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.time.LocalDateTime;
@@ -28,8 +43,10 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class BookingServiceImplTest {
@@ -37,6 +54,7 @@ class BookingServiceImplTest {
     private List<User> users;
     private List<Item> items;
     private List<Booking> bookings;
+    private List<BookingResultDto> bookingResults;
 
     private ItemRepository itemRepository;
 
@@ -44,6 +62,12 @@ class BookingServiceImplTest {
 
     private BookingRepository bookingRepository;
 
+    private SimpleMeterRegistry meterRegistry;
+
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private BookingArchiveRepository archiveRepository;
+
     @BeforeEach
     void init() {
         users = Arrays.asList(
@@ -65,6 +89,9 @@ class BookingServiceImplTest {
                         items.get(0), users.get(2), BookingStatus.WAITING)
         );
 
+        BookingMapper mapper = Mappers.getMapper(BookingMapper.class);
+        bookingResults = Arrays.asList(mapper.toBookingDto(bookings.get(0)), mapper.toBookingDto(bookings.get(1)));
+
         itemRepository = mock(ItemRepository.class);
         when(itemRepository.findById(items.get(0).getId())).thenReturn(Optional.of(items.get(0)));
         when(itemRepository.findById(10L)).thenReturn(Optional.empty());
@@ -76,11 +103,38 @@ class BookingServiceImplTest {
         when(userRepository.findById(10L)).thenReturn(Optional.empty());
 
         bookingRepository = mock(BookingRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        summaryRepository = mock(ItemBookingSummaryRepository.class);
+
+        // Архив пуст: страницы, не заполненные из BOOKINGS, дочитываются из него
+        archiveRepository = mock(BookingArchiveRepository.class);
+        SliceImpl<BookingResultDto> noArchived = new SliceImpl<>(List.of());
+        when(archiveRepository.findAllByBooker_Id(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(noArchived);
+        when(archiveRepository.findAllByBooker_IdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
+                Mockito.any(Pageable.class)))
+                .thenReturn(noArchived);
+        when(archiveRepository.findAllByOwner_Id(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(noArchived);
+        when(archiveRepository.findAllByOwner_IdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
+                Mockito.any(Pageable.class)))
+                .thenReturn(noArchived);
+        when(archiveRepository.findKeysetByBooker_Id(Mockito.anyLong(), Mockito.any(LocalDateTime.class),
+                Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(noArchived);
+        when(archiveRepository.findKeysetByOwner_IdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(noArchived);
 
         bookingService = new BookingServiceImpl(
                 bookingRepository,
-                userRepository,
-                itemRepository);
+                new UserCache(userRepository),
+                itemRepository,
+                new BookingAvailabilityIndex(bookingRepository),
+                new BookingSearchMetrics(meterRegistry),
+                new ItemBookingSummaryStore(summaryRepository, bookingRepository, archiveRepository),
+                archiveRepository,
+                new BookingHistory(new ArchivedBookingUsers(archiveRepository), 180));
     }
 
     @Test
@@ -121,6 +175,32 @@ class BookingServiceImplTest {
         assertEquals(bookingDto.getItemId(), bookingResultDto.getItem().getId());
         assertEquals(bookingDto.getBookerId(), bookingResultDto.getBooker().getId());
         assertEquals(bookingDto.getStatus(), bookingResultDto.getStatus());
+        // Бронирование уже закончилось и предлагается сводке вещи как последнее
+        verify(summaryRepository).offerLast(items.get(0).getId(), bookings.get(0).getId(),
+                users.get(2).getId(), bookings.get(0).getEnd());
+    }
+
+    @Test
+    void addBookingOverlapping() {
+        Booking saved = new Booking(5L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(3),
+                items.get(0), users.get(2), BookingStatus.WAITING);
+        when(bookingRepository.save(Mockito.any(Booking.class))).thenReturn(saved);
+
+        BookingParamDto bookingDto = new BookingParamDto(saved.getStart(), saved.getEnd(),
+                items.get(0).getId(), null, BookingStatus.WAITING);
+        bookingService.addBooking(bookingDto, users.get(2).getId());
+
+        BookingParamDto overlapping = new BookingParamDto(saved.getStart().plusDays(1), saved.getEnd().plusDays(1),
+                items.get(0).getId(), null, BookingStatus.WAITING);
+        assertThrows(ValidationException.class,
+                () -> bookingService.addBooking(overlapping, users.get(1).getId()));
+
+        BookingParamDto adjacent = new BookingParamDto(saved.getEnd(), saved.getEnd().plusDays(1),
+                items.get(0).getId(), null, BookingStatus.WAITING);
+        when(bookingRepository.save(Mockito.any(Booking.class))).thenReturn(
+                new Booking(6L, adjacent.getStart(), adjacent.getEnd(), items.get(0), users.get(1),
+                        BookingStatus.WAITING));
+        assertEquals(6L, bookingService.addBooking(adjacent, users.get(1).getId()).getId());
     }
 
     @Test
@@ -180,13 +260,37 @@ class BookingServiceImplTest {
         assertEquals(bookings.get(0).getStatus(), bookingResultDto.getStatus());
     }
 
+    @Test
+    void getArchivedBookingById() {
+        ArchivedBooking archived = new ArchivedBooking();
+        archived.setId(3L);
+        archived.setStart(LocalDateTime.now().minusYears(2));
+        archived.setEnd(LocalDateTime.now().minusYears(1));
+        archived.setItem(items.get(0));
+        archived.setOwner(items.get(0).getOwner());
+        archived.setBooker(users.get(2));
+        archived.setStatus(BookingStatus.APPROVED);
+        when(archiveRepository.findById(3L)).thenReturn(Optional.of(archived));
+
+        assertThrows(BookerOrOwnerException.class,
+                () -> bookingService.getBookingById(3L, users.get(1).getId()));
+
+        BookingResultDto bookingResultDto = bookingService.getBookingById(3L, users.get(0).getId());
+
+        assertEquals(archived.getId(), bookingResultDto.getId());
+        assertEquals(archived.getItem().getId(), bookingResultDto.getItem().getId());
+        assertEquals(archived.getItem().getName(), bookingResultDto.getItem().getName());
+        assertEquals(archived.getBooker().getId(), bookingResultDto.getBooker().getId());
+        assertEquals(BookingStatus.APPROVED, bookingResultDto.getStatus());
+    }
+
     @Test
     void getBookingsByUserId() {
 
         assertThrows(UserNotFoundException.class,
                 () -> bookingService.getBookingsByUserId("ALL", 10L, 0, 10));
 
-        PageImpl pagedRes = new PageImpl(Collections.singletonList(bookings.get(0)));
+        PageImpl<BookingResultDto> pagedRes = new PageImpl<>(Collections.singletonList(bookingResults.get(0)));
 
         when(bookingRepository.findAllByBooker_Id(Mockito.anyLong(), Mockito.any(Pageable.class)))
                 .thenReturn(pagedRes);
@@ -194,17 +298,16 @@ class BookingServiceImplTest {
                 1L, 0, 10);
         assertEquals(bookings.get(0).getId(), bookingResultDtoRes.get(0).getId());
 
-        when(bookingRepository.findAllByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(
+        when(bookingRepository.findCurrentByBooker_Id(
                 Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class),
-                Mockito.any(LocalDateTime.class),
                 Mockito.any(Pageable.class)))
                 .thenReturn(pagedRes);
         bookingResultDtoRes = bookingService.getBookingsByUserId("CURRENT",
                 1L, 0, 10);
         assertEquals(bookings.get(0).getId(), bookingResultDtoRes.get(0).getId());
 
-        when(bookingRepository.findAllByBooker_IdAndEndBefore(
+        when(bookingRepository.findPastByBooker_Id(
                 Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class),
                 Mockito.any(Pageable.class)))
@@ -213,7 +316,7 @@ class BookingServiceImplTest {
                 1L, 0, 10);
         assertEquals(bookings.get(0).getId(), bookingResultDtoRes.get(0).getId());
 
-        when(bookingRepository.findAllByBooker_IdAndStartAfter(
+        when(bookingRepository.findFutureByBooker_Id(
                 Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class),
                 Mockito.any(Pageable.class)))
@@ -249,7 +352,7 @@ class BookingServiceImplTest {
         assertThrows(UserNotFoundException.class,
                 () -> bookingService.getBookingsItemsByUserId("UNKNOWN_STATE", 10L, 0, 10));
 
-        PageImpl pagedRes = new PageImpl(Collections.singletonList(bookings.get(0)));
+        PageImpl<BookingResultDto> pagedRes = new PageImpl<>(Collections.singletonList(bookingResults.get(0)));
 
         when(bookingRepository.findAllByOwner_Id(Mockito.anyLong(), Mockito.any(Pageable.class)))
                 .thenReturn(pagedRes);
@@ -257,7 +360,7 @@ class BookingServiceImplTest {
                 1L, 0, 10);
         assertEquals(bookings.get(0).getId(), bookingResultDtoRes.get(0).getId());
 
-        when(bookingRepository.findAllByOwner_IdCurrentByDate(
+        when(bookingRepository.findCurrentByOwner_Id(
                 Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class),
                 Mockito.any(Pageable.class)))
@@ -266,7 +369,7 @@ class BookingServiceImplTest {
                 1L, 0, 10);
         assertEquals(bookings.get(0).getId(), bookingResultDtoRes.get(0).getId());
 
-        when(bookingRepository.findAllByOwner_IdAndEndBefore(
+        when(bookingRepository.findPastByOwner_Id(
                 Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class),
                 Mockito.any(Pageable.class)))
@@ -275,7 +378,7 @@ class BookingServiceImplTest {
                 1L, 0, 10);
         assertEquals(bookings.get(0).getId(), bookingResultDtoRes.get(0).getId());
 
-        when(bookingRepository.findAllByOwner_IdAndStartAfter(
+        when(bookingRepository.findFutureByOwner_Id(
                 Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class),
                 Mockito.any(Pageable.class)))
@@ -302,4 +405,56 @@ class BookingServiceImplTest {
                 1L, 0, 10);
         assertEquals(bookings.get(0).getId(), bookingResultDtoRes.get(0).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void bookingSearchIsTimedByStateAndRole() {
+        when(bookingRepository.findAllByOwner_IdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
+                Mockito.any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(bookingResults.get(0))));
+
+        bookingService.getBookingsItemsByUserId("WAITING", 1L, 0, 10);
+        bookingService.getBookingsItemsByUserId("WAITING", 1L, 0, 10);
+
+        assertEquals(2, meterRegistry.get(BookingSearchMetrics.TIMER_NAME)
+                .tags("state", "WAITING", "role", "owner", "pagination", "offset")
+                .timer()
+                .count());
+        assertNull(meterRegistry.find(BookingSearchMetrics.TIMER_NAME).tags("role", "booker").timer());
+    }
+
+    @Test
+    void getBookingsByUserIdFromCursor() {
+        assertThrows(UserNotFoundException.class,
+                () -> bookingService.getBookingsByUserIdFromCursor("ALL", 10L, "", 10));
+
+        SliceImpl<BookingResultDto> slice = new SliceImpl<>(List.of(bookingResults.get(1), bookingResults.get(0)),
+                PageRequest.of(0, 2), true);
+        when(bookingRepository.findKeysetByBooker_Id(Mockito.anyLong(), Mockito.any(LocalDateTime.class),
+                Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(slice);
+
+        BookingSliceDto res = bookingService.getBookingsByUserIdFromCursor("ALL", 1L, "", 2);
+        assertEquals(2, res.getBookings().size());
+        assertEquals(new KeysetCursor(bookings.get(0).getStart(), bookings.get(0).getId()).encode(),
+                res.getNextCursor());
+
+        when(bookingRepository.findKeysetPastByBooker_Id(Mockito.anyLong(), Mockito.any(LocalDateTime.class),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingResults.get(0))));
+
+        res = bookingService.getBookingsByUserIdFromCursor("PAST", 1L, res.getNextCursor(), 2);
+        assertEquals(bookings.get(0).getId(), res.getBookings().get(0).getId());
+        assertNull(res.getNextCursor());
+    }
+
+    @Test
+    void getBookingsItemsByUserIdFromCursor() {
+        when(bookingRepository.findKeysetByOwner_IdAndStatus(Mockito.anyLong(), Mockito.eq(BookingStatus.WAITING),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingResults.get(0))));
+
+        BookingSliceDto res = bookingService.getBookingsItemsByUserIdFromCursor("WAITING", 1L, "", 10);
+        assertEquals(bookings.get(0).getId(), res.getBookings().get(0).getId());
+        assertNull(res.getNextCursor());
+    }
+}
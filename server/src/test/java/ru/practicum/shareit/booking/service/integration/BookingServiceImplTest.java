@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.service.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+import static ru.practicum.shareit.metrics.SqlStatementAssertions.assertMaxStatements;
+
+/**
+ * Число SQL-запросов при выводе страниц бронирований: каждое бронирование страницы относится
+ * к своей вещи, своему владельцу и своему арендатору. Кроме проверки пользователя страница
+ * выбирается одним запросом вместе с названиями вещей.
+ */
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = BEFORE_EACH_TEST_METHOD)
+class BookingServiceImplTest {
+
+    private static final int BOOKINGS = 10;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+
+    private User booker;
+
+    @BeforeEach
+    void init() {
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BOOKINGS; i++) {
+            // Вещи владельца бронируют разные пользователи, арендатор бронирует вещи разных владельцев
+            User otherOwner = userRepository.save(new User(null, "Owner" + i, "owner" + i + "@mail.ru"));
+            User otherBooker = userRepository.save(new User(null, "Booker" + i, "booker" + i + "@mail.ru"));
+            Item ownerItem = itemRepository.save(new Item(null, "Item" + i, "Description", true, owner.getId(), null));
+            Item otherItem = itemRepository.save(
+                    new Item(null, "Other" + i, "Description", true, otherOwner.getId(), null));
+            bookingRepository.save(new Booking(null, now.plusDays(i + 1), now.plusDays(i + 2), ownerItem,
+                    otherBooker, BookingStatus.WAITING));
+            bookingRepository.save(new Booking(null, now.plusDays(i + 1), now.plusDays(i + 2), otherItem,
+                    booker, BookingStatus.WAITING));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getBookingsByUserIdDoesNotQueryPerBooking() {
+        List<BookingResultDto> bookings = assertMaxStatements(sqlStatementCounter, 2,
+                () -> bookingService.getBookingsByUserId("ALL", booker.getId(), 0, BOOKINGS));
+
+        assertEquals(BOOKINGS, bookings.size());
+        assertEquals("Other" + (BOOKINGS - 1), bookings.get(0).getItem().getName());
+        assertEquals(booker.getId(), bookings.get(0).getBooker().getId());
+    }
+
+    @Test
+    void getBookingsItemsByUserIdDoesNotQueryPerBooking() {
+        List<BookingResultDto> bookings = assertMaxStatements(sqlStatementCounter, 2,
+                () -> bookingService.getBookingsItemsByUserId("WAITING", owner.getId(), 0, BOOKINGS));
+
+        assertEquals(BOOKINGS, bookings.size());
+    }
+
+    @Test
+    void getBookingsItemsByUserIdFromCursorDoesNotQueryPerBooking() {
+        BookingSliceDto bookings = assertMaxStatements(sqlStatementCounter, 2,
+                () -> bookingService.getBookingsItemsByUserIdFromCursor("FUTURE", owner.getId(), null, BOOKINGS));
+
+        assertEquals(BOOKINGS, bookings.getBookings().size());
+    }
+
+    @Test
+    void getBookingsByUserIdPagesBookingsWithSameStartById() {
+        User sameStartBooker = userRepository.save(new User(null, "SameStart", "same-start@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "Item", "Description", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(0, bookingRepository.save(new Booking(null, start, start.plusDays(1), item, sameStartBooker,
+                    BookingStatus.WAITING)).getId());
+        }
+
+        // Страницы по одному бронированию: при равных датах начала порядок задаёт id, строки не повторяются
+        List<Long> pages = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from++) {
+            bookingService.getBookingsByUserId("ALL", sameStartBooker.getId(), from, 1)
+                    .forEach(booking -> pages.add(booking.getId()));
+        }
+        assertEquals(ids, pages);
+    }
+
+    @Test
+    void getBookingsItemsByUserIdPagesBookingsWithSameStartById() {
+        User sameStartOwner = userRepository.save(new User(null, "SameStartOwner", "same-start-owner@mail.ru"));
+        User sameStartBooker = userRepository.save(new User(null, "SameStart", "same-start@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "Item", "Description", true, sameStartOwner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(0, bookingRepository.save(new Booking(null, start, start.plusDays(1), item, sameStartBooker,
+                    BookingStatus.WAITING)).getId());
+        }
+
+        // Порядок списков владельца задаёт только сортировка страницы: start desc, id desc
+        for (String state : List.of("ALL", "FUTURE", "WAITING")) {
+            List<Long> pages = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from++) {
+                bookingService.getBookingsItemsByUserId(state, sameStartOwner.getId(), from, 1)
+                        .forEach(booking -> pages.add(booking.getId()));
+            }
+            assertEquals(ids, pages, state);
+        }
+    }
+}
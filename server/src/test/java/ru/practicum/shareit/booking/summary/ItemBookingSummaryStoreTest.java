@@ -0,0 +1,174 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = BEFORE_EACH_TEST_METHOD)
+class ItemBookingSummaryStoreTest {
+
+    @Autowired
+    private ItemBookingSummaryStore summaryStore;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository archiveRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private User booker;
+
+    private Item item;
+
+    @BeforeEach
+    void init() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        item = itemRepository.save(new Item(null, "Item", "Description", true, owner.getId(), null));
+    }
+
+    @Test
+    void addKeepsClosestBookings() {
+        summaryStore.create(List.of(item.getId()));
+        Booking later = book(now.plusDays(3), now.plusDays(4));
+        Booking sooner = book(now.plusDays(1), now.plusDays(2));
+        Booking older = book(now.minusDays(4), now.minusDays(3));
+        Booking recent = book(now.minusDays(2), now.minusDays(1));
+        for (Booking booking : List.of(later, sooner, older, recent)) {
+            summaryStore.add(booking);
+        }
+        entityManager.clear();
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(recent.getId(), summary.getLastBookingId());
+        assertEquals(booker.getId(), summary.getLastBookerId());
+        assertEquals(sooner.getId(), summary.getNextBookingId());
+        assertEquals(booker.getId(), summary.getNextBookerId());
+    }
+
+    @Test
+    void advanceMovesEndedNextToLast() {
+        summaryStore.create(List.of(item.getId()));
+        Booking sooner = book(now.plusHours(1), now.plusHours(2));
+        Booking later = book(now.plusHours(3), now.plusHours(4));
+        summaryStore.add(sooner);
+        summaryStore.add(later);
+        entityManager.clear();
+
+        // Пересчёт на момент после окончания ближайшего бронирования
+        LocalDateTime afterSooner = now.plusHours(2).plusMinutes(30);
+        assertEquals(1, summaryStore.advance(afterSooner, 10));
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(sooner.getId(), summary.getLastBookingId());
+        assertEquals(later.getId(), summary.getNextBookingId());
+        assertEquals(0, summaryStore.advance(afterSooner, 10));
+    }
+
+    @Test
+    void findAllByItemIdsComputesMissingSummariesWithoutSaving() {
+        Booking past = book(now.minusDays(2), now.minusDays(1));
+        Booking future = book(now.plusDays(1), now.plusDays(2));
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+
+        ItemBookingSummary summary = summaryStore.findAllByItemIds(List.of(item.getId())).get(item.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(past.getId(), summary.getLastBookingId());
+        assertEquals(future.getId(), summary.getNextBookingId());
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void findAllByItemIdsRecomputesOutdatedSummaryWithoutSaving() {
+        summaryStore.create(List.of(item.getId()));
+        Booking sooner = book(now.minusHours(3), now.minusHours(1));
+        Booking later = book(now.plusHours(1), now.plusHours(2));
+        // Сводка записана, когда ближайшее бронирование ещё не закончилось
+        summaryRepository.offerNext(item.getId(), sooner.getId(), booker.getId(), sooner.getEnd());
+        entityManager.clear();
+        Long version = summaryRepository.findById(item.getId()).orElseThrow().getVersion();
+
+        ItemBookingSummary summary = summaryStore.findAllByItemIds(List.of(item.getId())).get(item.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(sooner.getId(), summary.getLastBookingId());
+        assertEquals(later.getId(), summary.getNextBookingId());
+        ItemBookingSummary stored = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(version, stored.getVersion());
+        assertNull(stored.getLastBookingId());
+        assertEquals(sooner.getId(), stored.getNextBookingId());
+    }
+
+    @Test
+    void findAllByItemIdsFindsLastInArchive() {
+        Booking older = book(now.minusDays(60), now.minusDays(59));
+        Booking archived = book(now.minusDays(50), now.minusDays(49));
+        Booking future = book(now.plusDays(1), now.plusDays(2));
+        archiveRepository.moveFromBookings(List.of(older.getId(), archived.getId()));
+        entityManager.clear();
+
+        ItemBookingSummary summary = summaryStore.findAllByItemIds(List.of(item.getId())).get(item.getId());
+
+        assertEquals(archived.getId(), summary.getLastBookingId());
+        assertEquals(booker.getId(), summary.getLastBookerId());
+        assertEquals(future.getId(), summary.getNextBookingId());
+    }
+
+    @Test
+    void findAllByItemIdsWithoutBookings() {
+        summaryStore.create(List.of(item.getId()));
+
+        ItemBookingSummary summary = summaryStore.findAllByItemIds(List.of(item.getId())).get(item.getId());
+
+        assertNull(summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+    }
+
+    private Booking book(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, BookingStatus.APPROVED));
+    }
+}
@@ -11,11 +11,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -58,6 +60,24 @@ class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(itemDto)));
     }
 
+    @Test
+    void addItems() throws Exception {
+        List<ItemImportResult> results = List.of(
+                new ItemImportResult(0, 1L, null),
+                new ItemImportResult(1, null, "Запрос с id = 5 не найден."));
+        when(itemService.addItems(Mockito.anyList(), eq(1L)))
+                .thenReturn(results);
+
+        mockMvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDto, itemDto)))
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"row\":0,\"id\":1},{\"row\":1,\"error\":\"Запрос с id = 5 не найден.\"}]"));
+    }
+
     @Test
     void updateItem() throws Exception {
         when(itemService.updateItem(Mockito.any(ItemDto.class), eq(1L), eq(1L)))
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -67,4 +68,42 @@ class ItemRepositoryTest {
 
         assertEquals(2, res.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchItemsOrderedByRelevance() {
+        User user = new User(1L, "User1", "user1@mail.ru");
+        userRepository.save(user);
+
+        Item inName = itemRepository.save(new Item(null, "Аккумуляторная дрель", "Без зарядки", true, 1L, null));
+        Item exact = itemRepository.save(new Item(null, "Дрель", "Обычная", true, 1L, null));
+        Item inDescription = itemRepository.save(new Item(null, "Набор свёрл", "Подходит под любую дрель", true, 1L, null));
+        Item prefix = itemRepository.save(new Item(null, "Дрель ударная", "С кейсом", true, 1L, null));
+        itemRepository.save(new Item(null, "Дрель", "Сломана", false, 1L, null));
+
+        List<Long> res = itemRepository.searchItems("дРЕЛЬ", Pageable.unpaged()).get()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(exact.getId(), prefix.getId(), inName.getId(), inDescription.getId()), res);
+    }
+
+    @Test
+    void searchItemsTreatsWildcardsAsText() {
+        User user = new User(1L, "User1", "user1@mail.ru");
+        userRepository.save(user);
+
+        Item percent = itemRepository.save(new Item(null, "Скидка 50%", "Почти новая", true, 1L, null));
+        Item underscore = itemRepository.save(new Item(null, "Кабель usb_c", "Метр", true, 1L, null));
+        itemRepository.save(new Item(null, "Кабель usb-c", "Пятьдесят сантиметров", true, 1L, null));
+        itemRepository.save(new Item(null, "Лампа", "Мощность 50 Вт", true, 1L, null));
+
+        assertEquals(List.of(percent.getId()), ids(itemRepository.searchItems("50%", Pageable.unpaged())));
+        assertEquals(List.of(underscore.getId()), ids(itemRepository.searchItems("usb_c", Pageable.unpaged())));
+        assertEquals(List.of(percent.getId()), ids(itemRepository.searchItems("%", Pageable.unpaged())));
+        assertTrue(itemRepository.searchItems("\\", Pageable.unpaged()).isEmpty());
+    }
+
+    private static List<Long> ids(Slice<Item> items) {
+        return items.map(Item::getId).getContent();
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+
+/**
+ * Поиск через ItemService с движком в памяти: остальные тесты работают с поиском в базе данных.
+ * Тест не транзакционный: вещи попадают в индекс только после фиксации транзакции сохранения.
+ */
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.search.engine=memory"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = BEFORE_EACH_TEST_METHOD)
+class InMemoryItemSearchEngineIntegrationTest {
+
+    @Autowired
+    private ItemSearchEngine searchEngine;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void searchFindsItemsSavedThroughService() {
+        assertInstanceOf(InMemoryItemSearchEngine.class, searchEngine);
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        ItemDto drill = itemService.addItem(item("Дрель", "Обычная"), owner.getId());
+        ItemDto sale = itemService.addItem(item("Скидка 50%", "Дрель почти новая"), owner.getId());
+        itemService.addItem(item("Лампа", "Мощность 50 Вт"), owner.getId());
+
+        assertEquals(List.of(drill.getId(), sale.getId()), ids(itemService.searchItems("дрель", 0, 10)));
+        assertEquals(List.of(sale.getId()), ids(itemService.searchItems("50%", 0, 10)));
+        assertTrue(itemService.searchItems("usb_c", 0, 10).isEmpty());
+    }
+
+    @Test
+    void rolledBackItemsAreNotIndexed() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+
+        // Название длиннее столбца items.name: вставка падает при фиксации транзакции
+        assertThrows(DataIntegrityViolationException.class,
+                () -> itemService.addItem(item("Дрель".repeat(11), "Обычная"), owner.getId()));
+
+        assertTrue(itemService.searchItems("дрель", 0, 10).isEmpty());
+        assertTrue(searchEngine.search("дрель", Pageable.unpaged()).isEmpty());
+    }
+
+    private static ItemDto item(String name, String description) {
+        return new ItemDto(null, name, description, true, null, null, null, null);
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
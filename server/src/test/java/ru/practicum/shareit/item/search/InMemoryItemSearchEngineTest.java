@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchEngineTest {
+
+    private InMemoryItemSearchEngine engine;
+
+    @BeforeEach
+    void init() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(
+                new Item(1L, "Аккумуляторная дрель", "Без зарядки", true, 1L, null),
+                new Item(2L, "Дрель", "Обычная", true, 1L, null),
+                new Item(3L, "Набор свёрл", "Подходит под любую дрель", true, 1L, null),
+                new Item(4L, "Дрель ударная", "С кейсом", true, 1L, null),
+                new Item(5L, "Отвёртка", null, true, 1L, null)
+        ));
+
+        engine = new InMemoryItemSearchEngine(itemRepository);
+        engine.rebuild();
+    }
+
+    @Test
+    void searchOrderedByRelevance() {
+        assertEquals(List.of(2L, 4L, 1L, 3L), ids(engine.search("дРЕЛЬ", Pageable.unpaged())));
+        assertEquals(List.of(1L, 3L), ids(engine.search("дрель", PageRequest.of(1, 2))));
+
+        // Текст короче триграммы и текст на стыке названия и описания
+        assertEquals(List.of(3L, 5L), ids(engine.search("ЁР", Pageable.unpaged())));
+        assertTrue(engine.search("ударнаяс", Pageable.unpaged()).isEmpty());
+
+        assertTrue(engine.search("", Pageable.unpaged()).isEmpty());
+        assertTrue(engine.search(null, Pageable.unpaged()).isEmpty());
+        assertTrue(engine.search("перфоратор", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void indexUpdates() {
+        engine.index(new Item(6L, "Перфоратор", "Почти как дрель", true, 2L, null));
+        engine.index(new Item(2L, "Шуруповёрт", "Обычный", true, 1L, null));
+        engine.index(new Item(4L, "Дрель ударная", "С кейсом", false, 1L, null));
+
+        assertEquals(List.of(1L, 3L, 6L), ids(engine.search("дрель", Pageable.unpaged())));
+        assertEquals(List.of(2L), ids(engine.search("шуруп", Pageable.unpaged())));
+        assertEquals(List.of(6L), ids(engine.search("перфоратор", Pageable.unpaged())));
+
+        engine.index(new Item(4L, "Дрель ударная", "С кейсом", true, 1L, null));
+        assertEquals(List.of(4L, 1L, 3L, 6L), ids(engine.search("дрель", Pageable.unpaged())));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
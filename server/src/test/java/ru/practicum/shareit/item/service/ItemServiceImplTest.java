@@ -9,17 +9,24 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryStore;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.ItemUpdateException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.RepositoryItemSearchEngine;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.time.LocalDateTime;
@@ -32,6 +39,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ItemServiceImplTest {
@@ -49,6 +59,8 @@ class ItemServiceImplTest {
 
     private CommentRepository commentRepository;
 
+    private ItemRequestRepository itemRequestRepository;
+
     @BeforeEach
     void init() {
         users = Arrays.asList(
@@ -85,23 +97,33 @@ class ItemServiceImplTest {
         when(userRepository.findById(10L)).thenReturn(Optional.empty());
 
         bookingRepository = mock(BookingRepository.class);
-        when(bookingRepository.findFirstByItem_IdAndItem_OwnerAndEndBeforeOrderByEndDesc(
-                Mockito.anyLong(), Mockito.anyLong(), Mockito.any(LocalDateTime.class)))
-                .thenReturn(Optional.ofNullable(bookings.get(0)));
-        when(bookingRepository.findFirstByItem_IdAndItem_OwnerAndEndAfterOrderByEnd(
-                Mockito.anyLong(), Mockito.anyLong(), Mockito.any(LocalDateTime.class)))
-                .thenReturn(Optional.ofNullable(bookings.get(1)));
+        when(bookingRepository.findLastByItem_IdIn(Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookings.get(0)));
+        when(bookingRepository.findNextByItem_IdIn(Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookings.get(1)));
+
+        // Сводок нет, поэтому последнее и следующее бронирование пересчитываются по бронированиям
+        ItemBookingSummaryRepository summaryRepository = mock(ItemBookingSummaryRepository.class);
+        when(summaryRepository.findAllById(Mockito.anyIterable())).thenReturn(List.of());
 
         commentRepository = mock(CommentRepository.class);
         when(commentRepository.findAllByItem_Id(items.get(0).getId()))
                 .thenReturn(comments);
 
 
+        itemRequestRepository = mock(ItemRequestRepository.class);
+
+        BookingArchiveRepository archiveRepository = mock(BookingArchiveRepository.class);
+
         itemService = new ItemServiceImpl(
                 itemRepository,
-                userRepository,
+                new UserCache(userRepository),
                 bookingRepository,
-                commentRepository);
+                commentRepository,
+                new RepositoryItemSearchEngine(itemRepository),
+                itemRequestRepository,
+                new ItemBookingSummaryStore(summaryRepository, bookingRepository, archiveRepository),
+                archiveRepository);
     }
 
     @Test
@@ -126,6 +148,33 @@ class ItemServiceImplTest {
         assertEquals(item1.isAvailable(), itemDtoRes.getAvailable());
     }
 
+    @Test
+    void addItems() {
+        ItemDto first = new ItemDto(null, "Item1", "Item 1 description", true, null, null, null, null);
+        ItemDto unknownRequest = new ItemDto(null, "Item2", "Item 2 description", true, 5L, null, null, null);
+        ItemDto knownRequest = new ItemDto(null, "Item3", "Item 3 description", true, 1L, null, null, null);
+        when(itemRequestRepository.findIdsByIdIn(Mockito.anyCollection())).thenReturn(List.of(1L));
+        when(itemRepository.saveAll(Mockito.anyList())).thenReturn(List.of(
+                new Item(11L, "Item1", "Item 1 description", true, 1L, null),
+                new Item(12L, "Item3", "Item 3 description", true, 1L, 1L)));
+
+        List<ItemImportResult> results = itemService.addItems(List.of(first, unknownRequest, knownRequest), 1L);
+
+        assertEquals(List.of(
+                new ItemImportResult(0, 11L, null),
+                new ItemImportResult(1, null, "Запрос с id = 5 не найден."),
+                new ItemImportResult(2, 12L, null)), results);
+    }
+
+    @Test
+    void addItemsWithTooManyItems() {
+        ItemDto itemDto = new ItemDto(null, "Item", "Item description", true, null, null, null, null);
+        List<ItemDto> itemDtos = Collections.nCopies(ItemServiceImpl.MAX_IMPORT_SIZE + 1, itemDto);
+
+        assertThrows(ValidationException.class, () -> itemService.addItems(itemDtos, 1L));
+        verify(itemRepository, never()).saveAll(Mockito.anyList());
+    }
+
     @Test
     void updateItem() {
         Item item1 = new Item(1L, "UpdItem1", "Updated Item 1 description",
@@ -180,9 +229,21 @@ class ItemServiceImplTest {
         Page<Item> pagedRes = new PageImpl(Collections.singletonList(items.get(0)));
         when(itemRepository.findAllByOwner(eq(users.get(0).getId()), Mockito.any(Pageable.class)))
                 .thenReturn(pagedRes);
+        when(bookingRepository.findLastByItem_IdIn(Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookings.get(0)));
+        when(bookingRepository.findNextByItem_IdIn(Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookings.get(1)));
+        when(commentRepository.findAllByItem_IdIn(List.of(items.get(0).getId())))
+                .thenReturn(comments);
 
         List<ItemDto> listRes = itemService.getItemsByUserId(users.get(0).getId(), 0, 10);
 
+        verify(bookingRepository, times(1)).findLastByItem_IdIn(
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findNextByItem_IdIn(
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+        verify(commentRepository, never()).findAllByItem_Id(Mockito.anyLong());
+
         Item item1 = items.get(0);
 
         assertEquals(1, listRes.size());
@@ -246,14 +307,14 @@ class ItemServiceImplTest {
                 () -> itemService.addComment(commentDto, 10L,
                         comments.get(0).getAuthor().getId()));
 
-        when(bookingRepository.findFirstByBooker_IdAndItem_IdAndEndBeforeOrderByStartDesc(
+        when(bookingRepository.existsPastByBooker_IdAndItem_Id(
                 eq(2L),
                 eq(items.get(0).getId()),
-                Mockito.any(LocalDateTime.class))).thenReturn(Optional.empty());
-        when(bookingRepository.findFirstByBooker_IdAndItem_IdAndEndBeforeOrderByStartDesc(
+                Mockito.any(LocalDateTime.class))).thenReturn(false);
+        when(bookingRepository.existsPastByBooker_IdAndItem_Id(
                 eq(users.get(2).getId()),
                 eq(items.get(0).getId()),
-                Mockito.any(LocalDateTime.class))).thenReturn(Optional.of(bookings.get(0)));
+                Mockito.any(LocalDateTime.class))).thenReturn(true);
 
         assertThrows(ValidationException.class,
                 () -> itemService.addComment(commentDto, comments.get(0).getItem().getId(),
@@ -6,24 +6,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryStore;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.practicum.shareit.metrics.SqlStatementAssertions.assertMaxStatements;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
 
 @Transactional
@@ -35,6 +46,10 @@ import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFOR
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
 
+    private static final int ITEMS = 10;
+
+    private static final int IMPORTED_ITEMS = 120;
+
     @Autowired
     private ItemService itemService;
 
@@ -50,6 +65,15 @@ class ItemServiceImplTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ItemBookingSummaryStore summaryStore;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void getItemsByUserId() {
 
@@ -93,4 +117,83 @@ class ItemServiceImplTest {
         assertEquals(comment.getText(), listRes.get(0).getComments().get(0).getText());
         assertEquals(comment.getAuthor().getName(), listRes.get(0).getComments().get(0).getAuthorName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemsByUserIdDoesNotQueryPerItem() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            User booker = userRepository.save(new User(null, "Booker" + i, "booker" + i + "@mail.ru"));
+            Item item = itemRepository.save(new Item(null, "Item" + i, "Item description", true, owner.getId(), null));
+            // Сводки бронирований создаются и обновляются так же, как при добавлении через сервисы
+            summaryStore.create(List.of(item.getId()));
+            summaryStore.add(bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item,
+                    booker, BookingStatus.APPROVED)));
+            summaryStore.add(bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item,
+                    booker, BookingStatus.APPROVED)));
+            commentRepository.save(new Comment(null, "Comment" + i, item, booker, now));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemDto> items = assertMaxStatements(sqlStatementCounter, 6,
+                () -> itemService.getItemsByUserId(owner.getId(), 0, ITEMS));
+
+        assertEquals(ITEMS, items.size());
+        items.forEach(item -> {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+            assertEquals(1, item.getComments().size());
+        });
+    }
+
+    @Test
+    void addItemsInsertsInBatches() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < IMPORTED_ITEMS; i++) {
+            itemDtos.add(new ItemDto(null, "Item" + i, "Item description", true, null, null, null, null));
+        }
+        itemDtos.get(7).setRequestId(100L);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Пользователь, запросы, id из последовательности блоками по 50 и вставки пакетами по 50
+        List<ItemImportResult> results = assertMaxStatements(sqlStatementCounter, 8, () -> {
+            List<ItemImportResult> imported = itemService.addItems(itemDtos, owner.getId());
+            entityManager.flush();
+            return imported;
+        });
+
+        assertEquals(IMPORTED_ITEMS, results.size());
+        assertEquals(7, results.get(7).getRow());
+        assertNull(results.get(7).getId());
+        assertEquals("Запрос с id = 100 не найден.", results.get(7).getError());
+        List<Long> ids = results.stream().map(ItemImportResult::getId).filter(Objects::nonNull)
+                .distinct().collect(Collectors.toList());
+        assertEquals(IMPORTED_ITEMS - 1, ids.size());
+        assertEquals(IMPORTED_ITEMS - 1, itemRepository.findAllByOwner(owner.getId(), Pageable.unpaged())
+                .getTotalElements());
+    }
+
+    @Test
+    void addItemsRejectsOverlongRowOnly() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        List<ItemDto> itemDtos = List.of(
+                new ItemDto(null, "Item0", "Item description", true, null, null, null, null),
+                new ItemDto(null, "Item".repeat(13), "Item description", true, null, null, null, null),
+                new ItemDto(null, "Item2", "d".repeat(256), true, null, null, null, null),
+                new ItemDto(null, "Item3", "Item description", true, null, null, null, null));
+
+        List<ItemImportResult> results = itemService.addItems(itemDtos, owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNotNull(results.get(0).getId());
+        assertEquals("Значение name длиннее 50 символов.", results.get(1).getError());
+        assertEquals("Значение description длиннее 255 символов.", results.get(2).getError());
+        assertNotNull(results.get(3).getId());
+        assertEquals(List.of("Item0", "Item3"), itemRepository.findAllByOwner(owner.getId(), Pageable.unpaged())
+                .map(Item::getName).getContent());
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Проверка числа SQL-запросов, которые выполняет операция в интеграционном тесте.
+ * <p>
+ * Запросы считает {@link SqlStatementCounter} сервера. Чтобы запросы не скрывал кэш первого уровня,
+ * перед проверкой тест записывает и очищает контекст персистентности (flush и clear).
+ * Ограничение задаётся для набора данных из нескольких строк: если операция снова начнёт выполнять
+ * запрос на каждую строку, число запросов превысит ограничение и тест упадёт.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(SqlStatementCounter counter, int maxStatements, Supplier<T> operation) {
+        counter.start();
+        T result;
+        int statements;
+        try {
+            result = operation.get();
+        } finally {
+            statements = counter.stop();
+        }
+        if (statements > maxStatements) {
+            fail(String.format("Ожидалось не более %d SQL-запросов, выполнено %d.", maxStatements, statements));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class SqlStatementMetricsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void statementsAreCountedPerRequestAndExported() throws Exception {
+        UserDto user = userService.addUser(new UserDto(null, "User1", "user1@mail.ru"));
+
+        mvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+        mvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get(SqlStatementMetricsInterceptor.SUMMARY_NAME)
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .summary();
+        assertEquals(2, statements.count());
+        assertEquals(2, statements.totalAmount());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_sql_statements_count")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2023, 1, 2, 3, 4, 5, 6000), 42L);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodeEmpty() {
+        KeysetCursor first = KeysetCursor.decode("");
+
+        assertEquals(Long.MAX_VALUE, first.getId());
+        assertEquals(first, KeysetCursor.decode(null));
+    }
+
+    @Test
+    void decodeInvalid() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("MjAyMw"));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemRequestFeedCacheTest {
+
+    private final LocalDateTime created = LocalDateTime.of(2022, 9, 1, 12, 0);
+
+    private ItemRequestRepository itemRequestRepository;
+
+    // Запросы 5..1 от новых к старым, у запросов 5 и 4 одинаковая дата; запросы 4 и 2 - пользователя 1
+    private List<ItemRequest> newest;
+
+    @BeforeEach
+    void init() {
+        User user1 = new User(1L, "User1", "user1@mail.ru");
+        User user2 = new User(2L, "User2", "user2@mail.ru");
+        newest = List.of(
+                new ItemRequest(5L, "Request 5", user2, created),
+                new ItemRequest(4L, "Request 4", user1, created),
+                new ItemRequest(3L, "Request 3", user2, created.minusHours(1)),
+                new ItemRequest(2L, "Request 2", user1, created.minusHours(2)),
+                new ItemRequest(1L, "Request 1", user2, created.minusHours(3))
+        );
+        itemRequestRepository = mock(ItemRequestRepository.class);
+    }
+
+    @Test
+    void pageExcludesOwnRequests() {
+        when(itemRequestRepository.findNewest(PageRequest.of(0, 10))).thenReturn(new SliceImpl<>(newest));
+        ItemRequestFeedCache cache = new ItemRequestFeedCache(itemRequestRepository, 10, Duration.ofMinutes(1));
+
+        Slice<ItemRequest> first = cache.page(1L, 0, 2).orElseThrow();
+        Slice<ItemRequest> second = cache.page(1L, 2, 2).orElseThrow();
+
+        assertEquals(List.of(5L, 3L), ids(first));
+        assertTrue(first.hasNext());
+        assertEquals(List.of(1L), ids(second));
+        assertFalse(second.hasNext());
+        verify(itemRequestRepository, times(1)).findNewest(any());
+    }
+
+    @Test
+    void pageAfterCursor() {
+        when(itemRequestRepository.findNewest(PageRequest.of(0, 10))).thenReturn(new SliceImpl<>(newest));
+        ItemRequestFeedCache cache = new ItemRequestFeedCache(itemRequestRepository, 10, Duration.ofMinutes(1));
+
+        Slice<ItemRequest> page = cache.pageAfter(2L, new KeysetCursor(created, 5L), 2).orElseThrow();
+
+        assertEquals(List.of(4L, 2L), ids(page));
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void pageBeyondIncompleteSnapshotIsNotServed() {
+        when(itemRequestRepository.findNewest(PageRequest.of(0, 3)))
+                .thenReturn(new SliceImpl<>(newest.subList(0, 3), PageRequest.of(0, 3), true));
+        ItemRequestFeedCache cache = new ItemRequestFeedCache(itemRequestRepository, 3, Duration.ofMinutes(1));
+
+        assertEquals(List.of(5L), ids(cache.page(1L, 0, 1).orElseThrow()));
+        assertEquals(Optional.empty(), cache.page(1L, 1, 1));
+        assertEquals(Optional.empty(), cache.pageAfter(1L, new KeysetCursor(created, 5L), 1));
+    }
+
+    @Test
+    void evictReloadsSnapshot() {
+        when(itemRequestRepository.findNewest(PageRequest.of(0, 10))).thenReturn(new SliceImpl<>(newest));
+        ItemRequestFeedCache cache = new ItemRequestFeedCache(itemRequestRepository, 10, Duration.ofMinutes(1));
+
+        cache.page(1L, 0, 2);
+        cache.page(1L, 0, 2);
+        cache.evict();
+        cache.page(1L, 0, 2);
+
+        verify(itemRequestRepository, times(2)).findNewest(any());
+    }
+
+    @Test
+    void disabledCacheDoesNotLoad() {
+        ItemRequestFeedCache cache = new ItemRequestFeedCache(itemRequestRepository, 0, Duration.ofMinutes(1));
+
+        assertEquals(Optional.empty(), cache.page(1L, 0, 2));
+        verify(itemRequestRepository, never()).findNewest(any());
+    }
+
+    private static List<Long> ids(Slice<ItemRequest> slice) {
+        return slice.getContent().stream().map(ItemRequest::getId).collect(Collectors.toList());
+    }
+}
@@ -3,19 +3,26 @@ package ru.practicum.shareit.request.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSliceDto;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -25,6 +32,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ItemRequestServiceImplTest {
@@ -74,8 +83,9 @@ class ItemRequestServiceImplTest {
 
         itemRequestService = new ItemRequestServiceImpl(
                 itemRequestRepository,
-                userRepository,
-                itemRepository);
+                new UserCache(userRepository),
+                itemRepository,
+                new ItemRequestFeedCache(itemRequestRepository, 0, Duration.ZERO));
     }
 
     @Test
@@ -123,12 +133,13 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getItemRequestsFromOtherUsers() {
-        PageImpl pagedRes = new PageImpl(Collections.singletonList(requests.get(1)));
+        Sort sort = Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id"));
+        SliceImpl<ItemRequest> pagedRes = new SliceImpl<>(Collections.singletonList(requests.get(1)));
         when(itemRequestRepository.findAllByRequester_IdIsNot(
-                eq(users.get(0).getId()),
-                Mockito.any(Pageable.class))).thenReturn(pagedRes);
+                users.get(0).getId(),
+                PageRequest.of(0, 10, sort))).thenReturn(pagedRes);
 
-        when(itemRepository.findAllByRequest(requests.get(1).getId()))
+        when(itemRepository.findAllByRequestIn(List.of(requests.get(1).getId())))
                 .thenReturn(Collections.singletonList(items.get(1)));
 
         List<ItemRequestDto>  itemRequests = itemRequestService.getItemRequestsFromOtherUsers(
@@ -136,6 +147,8 @@ class ItemRequestServiceImplTest {
                 10,
                 users.get(0).getId());
 
+        verify(itemRepository, never()).findAllByRequest(Mockito.anyLong());
+
         assertEquals(requests.get(1).getId(), itemRequests.get(0).getId());
         assertEquals(requests.get(1).getDescription(), itemRequests.get(0).getDescription());
         assertEquals(requests.get(1).getRequester().getId(), itemRequests.get(0).getRequester());
@@ -145,6 +158,27 @@ class ItemRequestServiceImplTest {
         assertEquals(items.get(1).getOwner(), itemRequests.get(0).getItems().get(0).getOwner());
     }
 
+    @Test
+    void getItemRequestsFromOtherUsersFromCursor() {
+        when(itemRequestRepository.findKeysetByRequester_IdIsNot(
+                eq(users.get(0).getId()),
+                eq(requests.get(1).getCreated().truncatedTo(ChronoUnit.MICROS)),
+                eq(requests.get(1).getId()),
+                Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(requests.get(0)), PageRequest.of(0, 1), true));
+
+        String cursor = new KeysetCursor(requests.get(1).getCreated(), requests.get(1).getId()).encode();
+        ItemRequestSliceDto slice = itemRequestService.getItemRequestsFromOtherUsersFromCursor(
+                cursor,
+                1,
+                users.get(0).getId());
+
+        assertEquals(1, slice.getRequests().size());
+        assertEquals(requests.get(0).getId(), slice.getRequests().get(0).getId());
+        assertEquals(new KeysetCursor(requests.get(0).getCreated(), requests.get(0).getId()).encode(),
+                slice.getNextCursor());
+    }
+
     @Test
     void getItemRequestById() {
         when(itemRequestRepository.findById(requests.get(0).getId())).thenReturn(Optional.ofNullable(requests.get(0)));
@@ -9,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -16,12 +17,14 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+import static ru.practicum.shareit.metrics.SqlStatementAssertions.assertMaxStatements;
 
 @Transactional
 @SpringBootTest(
@@ -32,6 +35,8 @@ import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFOR
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceImplTest {
 
+    private static final int REQUESTS = 10;
+
     @Autowired
     private ItemRequestService itemRequestService;
 
@@ -44,6 +49,12 @@ class ItemRequestServiceImplTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void getItemRequests() {
 
@@ -74,4 +85,42 @@ class ItemRequestServiceImplTest {
         assertEquals(item.getName(), itemRequests.get(0).getItems().get(0).getName());
         assertEquals(item.getDescription(), itemRequests.get(0).getItems().get(0).getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemRequestsFromOtherUsersDoesNotQueryPerRequest() {
+        User user = userRepository.save(new User(null, "User", "user@mail.ru"));
+        for (int i = 0; i < REQUESTS; i++) {
+            User requester = userRepository.save(new User(null, "Requester" + i, "requester" + i + "@mail.ru"));
+            ItemRequest itemRequest = itemRequestRepository.save(
+                    new ItemRequest(null, "Request" + i, requester, LocalDateTime.now().minusHours(i)));
+            itemRepository.save(new Item(null, "Item" + i, "Description", true, user.getId(), itemRequest.getId()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemRequestDto> itemRequests = assertMaxStatements(sqlStatementCounter, 3,
+                () -> itemRequestService.getItemRequestsFromOtherUsers(0, REQUESTS, user.getId()));
+
+        assertEquals(REQUESTS, itemRequests.size());
+        itemRequests.forEach(itemRequest -> assertEquals(1, itemRequest.getItems().size()));
+    }
+
+    @Test
+    void getItemRequestsDoesNotQueryPerRequest() {
+        User requester = userRepository.save(new User(null, "Requester", "requester@mail.ru"));
+        for (int i = 0; i < REQUESTS; i++) {
+            User owner = userRepository.save(new User(null, "Owner" + i, "owner" + i + "@mail.ru"));
+            ItemRequest itemRequest = itemRequestRepository.save(
+                    new ItemRequest(null, "Request" + i, requester, LocalDateTime.now().minusHours(i)));
+            itemRepository.save(new Item(null, "Item" + i, "Description", true, owner.getId(), itemRequest.getId()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemRequestDto> itemRequests = assertMaxStatements(sqlStatementCounter, 3,
+                () -> itemRequestService.getItemRequests(requester.getId()));
+
+        assertEquals(REQUESTS, itemRequests.size());
+        itemRequests.forEach(itemRequest -> assertEquals(1, itemRequest.getItems().size()));
+    }
+}
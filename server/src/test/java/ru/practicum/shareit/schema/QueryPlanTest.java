@@ -0,0 +1,329 @@
+package ru.practicum.shareit.schema;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Проверка планов запросов репозиториев на заполненной базе.
+ * SQL, сформированный Hibernate, перехватывается и передаётся в EXPLAIN H2:
+ * тест падает, если хотя бы одна таблица читается полным просмотром.
+ * <p>
+ * Проверяются списки бронирований арендатора и владельца в обеих таблицах, сводки вещей, фоновые сдвиг фаз
+ * и перенос в архив, вещи, комментарии и запросы, в том числе лента чужих запросов по курсору.
+ * Не проверяются запросы, которые по устройству обходят таблицу без условия доступа: поиск вещей по подстроке,
+ * выборка доступных вещей для индекса поиска в памяти, а также лента чужих запросов по смещению и её кэш
+ * (findAllByRequester_IdIsNot, findNewest) - они идут по индексу created в порядке сортировки до limit.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.schema.QueryPlanTest$SqlCaptor")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    // Таблица без условия доступа: "PUBLIC.BOOKINGS.tableScan" или индекс без ": <условие>"
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* PUBLIC\\.[A-Z0-9_]+(\\.tableScan)? \\*/");
+
+    private static final Pageable BY_START_DESC = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("insert into USERS (id, name, email)" +
+                " select x, 'User' || x, 'user' || x || '@mail.ru' from system_range(1, 200)");
+        jdbcTemplate.execute("insert into REQUESTS (id, description, requestor_id, created)" +
+                " select x, 'Request ' || x, mod(x, 200) + 1, dateadd('HOUR', -x, localtimestamp)" +
+                " from system_range(1, 1000)");
+        jdbcTemplate.execute("insert into ITEMS (id, name, description, is_available, owner_id, request_id)" +
+                " select x, 'Item' || x, 'Item ' || x || ' description', true, mod(x, 200) + 1," +
+                " case when mod(x, 4) = 0 then x / 4 end from system_range(1, 4000)");
+        jdbcTemplate.execute("insert into BOOKINGS (id, start_date, end_date, item_id, owner_id, booker_id, status, phase)" +
+                " select x, dateadd('HOUR', x - 19000, localtimestamp), dateadd('HOUR', x - 18976, localtimestamp)," +
+                " i.id, i.owner_id, mod(x * 7, 200) + 1," +
+                " case mod(x, 10) when 0 then 'WAITING' when 1 then 'REJECTED' when 2 then 'CANCELED' else 'APPROVED' end," +
+                " case when x < 18976 then 'PAST' when x <= 19000 then 'CURRENT' else 'FUTURE' end" +
+                " from system_range(1, 20000) join ITEMS i on i.id = mod(x, 4000) + 1");
+        jdbcTemplate.execute("insert into BOOKINGS_ARCHIVE (id, start_date, end_date, item_id, owner_id, booker_id, status)" +
+                " select 100000 + x, dateadd('HOUR', -x - 24, localtimestamp), dateadd('HOUR', -x, localtimestamp)," +
+                " i.id, i.owner_id, mod(x * 7, 200) + 1, 'APPROVED'" +
+                " from system_range(1, 20000) join ITEMS i on i.id = mod(x, 4000) + 1");
+        jdbcTemplate.execute("insert into COMMENTS (id, text, item_id, author_id, created)" +
+                " select x, 'Comment ' || x, mod(x, 4000) + 1, mod(x, 200) + 1, localtimestamp from system_range(1, 8000)");
+        for (String table : new String[]{"USERS", "REQUESTS", "ITEMS", "BOOKINGS", "COMMENTS"}) {
+            jdbcTemplate.execute("alter sequence " + table + "_seq restart with" +
+                    " (select max(id) + 1 from " + table + ")");
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        SqlCaptor.STATEMENTS.clear();
+    }
+
+    @Test
+    void findAllByBooker_Id() {
+        bookingRepository.findAllByBooker_Id(1L, BY_START_DESC);
+        assertIndexed();
+    }
+
+    @Test
+    void findByBooker_IdAndFuturePhase() {
+        bookingRepository.findFutureByBooker_Id(1L, now, BY_START_DESC);
+        bookingRepository.findKeysetFutureByBooker_Id(1L, now, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertIndexed("BOOKINGS_BOOKER_PHASE_START_IDX");
+    }
+
+    @Test
+    void findByBooker_IdAndCurrentOrPastPhase() {
+        bookingRepository.findCurrentByBooker_Id(1L, now, BY_START_DESC);
+        bookingRepository.findPastByBooker_Id(1L, now, BY_START_DESC);
+        bookingRepository.findKeysetCurrentByBooker_Id(1L, now, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        bookingRepository.findKeysetPastByBooker_Id(1L, now, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertIndexed();
+    }
+
+    @Test
+    void findAllByBooker_IdAndStatus() {
+        bookingRepository.findAllByBooker_IdAndStatus(1L, BookingStatus.WAITING, BY_START_DESC);
+        assertIndexed();
+    }
+
+    @Test
+    void findKeysetByBooker_Id() {
+        bookingRepository.findKeysetByBooker_Id(1L, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        bookingRepository.findKeysetByBooker_IdAndStatus(1L, BookingStatus.WAITING, now, Long.MAX_VALUE,
+                PageRequest.of(0, 10));
+        assertIndexed();
+    }
+
+    @Test
+    void findAllByOwner_Id() {
+        bookingRepository.findAllByOwner_Id(1L, BY_START_DESC);
+        bookingRepository.findAllByOwner_IdAndStatus(1L, BookingStatus.WAITING, BY_START_DESC);
+        assertIndexed("BOOKINGS_OWNER_START_IDX");
+    }
+
+    @Test
+    void findKeysetByOwner_Id() {
+        bookingRepository.findKeysetByOwner_Id(1L, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        bookingRepository.findKeysetByOwner_IdAndStatus(1L, BookingStatus.WAITING, now, Long.MAX_VALUE,
+                PageRequest.of(0, 10));
+        assertIndexed("BOOKINGS_OWNER_START_IDX");
+    }
+
+    @Test
+    void findByOwner_IdAndFuturePhase() {
+        bookingRepository.findFutureByOwner_Id(1L, now, BY_START_DESC);
+        bookingRepository.findKeysetFutureByOwner_Id(1L, now, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertIndexed("BOOKINGS_OWNER_PHASE_START_IDX");
+    }
+
+    @Test
+    void findByOwner_IdAndCurrentOrPastPhase() {
+        bookingRepository.findCurrentByOwner_Id(1L, now, BY_START_DESC);
+        bookingRepository.findPastByOwner_Id(1L, now, BY_START_DESC);
+        bookingRepository.findKeysetCurrentByOwner_Id(1L, now, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        bookingRepository.findKeysetPastByOwner_Id(1L, now, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertIndexed();
+    }
+
+    @Test
+    void advancePhase() {
+        bookingRepository.findStartedIds(now, PageRequest.of(0, 10));
+        bookingRepository.findEndedIds(now, PageRequest.of(0, 10));
+        bookingRepository.advancePhaseByIdIn(List.of(1L, 2L, 3L), now);
+        assertIndexed();
+    }
+
+    @Test
+    void findLastAndNextByItem_IdIn() {
+        bookingRepository.findLastByItem_IdIn(List.of(1L, 2L, 3L), now);
+        bookingRepository.findNextByItem_IdIn(List.of(1L, 2L, 3L), now);
+        assertIndexed();
+    }
+
+    @Test
+    void findItemBookingSummaries() {
+        summaryRepository.findAllById(List.of(1L, 2L, 3L));
+        summaryRepository.findAllByNextEndLessThanEqual(now, PageRequest.of(0, 10, Sort.by("nextEnd")));
+        assertIndexed();
+    }
+
+    @Test
+    void findArchivableIds() {
+        bookingRepository.findArchivableIds(now, PageRequest.of(0, 10));
+        assertIndexed("BOOKINGS_PHASE_END_IDX");
+    }
+
+    @Test
+    void findArchivedByBooker_Id() {
+        bookingArchiveRepository.findAllByBooker_Id(1L, BY_START_DESC);
+        bookingArchiveRepository.findAllByBooker_IdAndStatus(1L, BookingStatus.WAITING, BY_START_DESC);
+        bookingArchiveRepository.findKeysetByBooker_Id(1L, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        bookingArchiveRepository.findKeysetByBooker_IdAndStatus(1L, BookingStatus.WAITING, now, Long.MAX_VALUE,
+                PageRequest.of(0, 10));
+        assertIndexed();
+    }
+
+    @Test
+    void findArchivedByOwner_Id() {
+        bookingArchiveRepository.findAllByOwner_Id(1L, BY_START_DESC);
+        bookingArchiveRepository.findAllByOwner_IdAndStatus(1L, BookingStatus.WAITING, BY_START_DESC);
+        bookingArchiveRepository.findKeysetByOwner_Id(1L, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        bookingArchiveRepository.findKeysetByOwner_IdAndStatus(1L, BookingStatus.WAITING, now, Long.MAX_VALUE,
+                PageRequest.of(0, 10));
+        assertIndexed("BOOKINGS_ARCHIVE_OWNER_START_IDX");
+    }
+
+    @Test
+    void existsArchivedByBooker_IdAndItem_Id() {
+        bookingArchiveRepository.existsByBooker_IdAndItem_Id(1L, 1L);
+        assertIndexed("BOOKINGS_ARCHIVE_BOOKER_ITEM_IDX");
+    }
+
+    @Test
+    void findArchivedLastByItem_IdIn() {
+        bookingArchiveRepository.findLastByItem_IdIn(List.of(1L, 2L, 3L));
+        assertIndexed("BOOKINGS_ARCHIVE_ITEM_END_IDX");
+    }
+
+    @Test
+    void moveToArchive() {
+        bookingArchiveRepository.moveFromBookings(List.of(1L, 2L, 3L));
+        bookingArchiveRepository.existsUserById(1L);
+        assertIndexed();
+    }
+
+    @Test
+    void existsPastByBooker_IdAndItem_Id() {
+        bookingRepository.existsPastByBooker_IdAndItem_Id(1L, 1L, now);
+        assertIndexed();
+    }
+
+    @Test
+    void findWindowsByStatusInAndEndAfter() {
+        bookingRepository.findWindowsByStatusInAndEndAfter(List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+        assertIndexed();
+    }
+
+    @Test
+    void findAllByOwner() {
+        itemRepository.findAllByOwner(1L, PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id")));
+        assertIndexed();
+    }
+
+    @Test
+    void findAllByRequest() {
+        itemRepository.findAllByRequest(1L);
+        assertIndexed();
+    }
+
+    @Test
+    void findAllByRequestIn() {
+        itemRepository.findAllByRequestIn(List.of(1L, 2L, 3L));
+        assertIndexed();
+    }
+
+    @Test
+    void findCommentsByItem() {
+        commentRepository.findAllByItem_Id(1L);
+        commentRepository.findAllByItem_IdIn(List.of(1L, 2L, 3L));
+        assertIndexed();
+    }
+
+    @Test
+    void findAllByRequester_IdOrderByCreatedDesc() {
+        itemRequestRepository.findAllByRequester_IdOrderByCreatedDesc(1L);
+        assertIndexed();
+    }
+
+    @Test
+    void findKeysetByRequester_IdIsNot() {
+        itemRequestRepository.findKeysetByRequester_IdIsNot(1L, now, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertIndexed();
+    }
+
+    @Test
+    void findIdsByIdIn() {
+        itemRequestRepository.findIdsByIdIn(List.of(1L, 2L, 3L));
+        assertIndexed();
+    }
+
+    private void assertIndexed() {
+        assertIndexed(null);
+    }
+
+    /**
+     * Проверяет, что ни одна таблица не просматривается целиком, а если задан индекс - что каждый запрос его использует.
+     */
+    private void assertIndexed(String index) {
+        assertFalse(SqlCaptor.STATEMENTS.isEmpty(), "Запрос не был выполнен");
+        for (String sql : SqlCaptor.STATEMENTS) {
+            // Значения параметров на выбор индекса в H2 не влияют, поэтому передаются null
+            Object[] args = new Object[sql.length() - sql.replace("?", "").length()];
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, args);
+            if (FULL_SCAN.matcher(plan).find()) {
+                fail("Полный просмотр таблицы:\n" + sql + "\n" + plan);
+            }
+            if (index != null && !plan.contains("PUBLIC." + index)) {
+                fail("Запрос не использует индекс " + index + ":\n" + sql + "\n" + plan);
+            }
+        }
+    }
+
+    public static class SqlCaptor implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user.service.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = BEFORE_EACH_TEST_METHOD)
+class UserCacheTest {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void findByIdIsCachedUntilUpdate() {
+        UserDto user = userService.addUser(new UserDto(null, "User1", "user1@mail.ru"));
+
+        userCache.findById(user.getId());
+        userCache.findById(user.getId());
+        verify(userRepository, times(1)).findById(user.getId());
+
+        userService.updateUser(new UserDto(null, "User2", null), user.getId());
+        assertEquals("User2", userCache.findById(user.getId()).orElseThrow().getName());
+
+        double hits = meterRegistry.get("cache.gets")
+                .tags("cache", UserCache.CACHE_NAME, "result", "hit")
+                .functionCounter()
+                .count();
+        assertEquals(1, hits);
+    }
+
+    @Test
+    void deletedUserIsEvicted() {
+        UserDto user = userService.addUser(new UserDto(null, "User1", "user1@mail.ru"));
+        userCache.findById(user.getId());
+
+        userService.deleteUserById(user.getId());
+
+        assertTrue(userCache.findById(user.getId()).isEmpty());
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        userCache.findById(100L);
+        userCache.findById(100L);
+
+        verify(userRepository, times(2)).findById(100L);
+    }
+}
@@ -6,6 +6,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.Arrays;
@@ -35,7 +36,7 @@ class UserServiceImplTest {
         UserRepository userRepository = mock(UserRepository.class);
         when(userRepository.findAll()).thenReturn(users);
 
-        UserServiceImpl userService = new UserServiceImpl(userRepository);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(userRepository));
         List<UserDto> usersRes = userService.getUsers();
 
         assertEquals(3, usersRes.size());
@@ -50,7 +51,7 @@ class UserServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(users.get(0)));
         when(userRepository.findById(10L)).thenReturn(Optional.empty());
 
-        UserServiceImpl userService = new UserServiceImpl(userRepository);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(userRepository));
         UserDto usersRes = userService.getUserById(1L);
 
         assertEquals(users.get(0).getId(), usersRes.getId());
@@ -69,7 +70,7 @@ class UserServiceImplTest {
         UserRepository userRepository = mock(UserRepository.class);
         when(userRepository.save(user1)).thenReturn(user1);
 
-        UserServiceImpl userService = new UserServiceImpl(userRepository);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(userRepository));
 
         UserDto userDto = userService.addUser(new UserDto(1L, "User1", "user1@mail.ru"));
 
@@ -88,7 +89,7 @@ class UserServiceImplTest {
         User user2 = new User(1L, "UpdatedUser1", "upduser1@mail.ru");
         when(userRepository.save(user2)).thenReturn(user2);
 
-        UserServiceImpl userService = new UserServiceImpl(userRepository);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(userRepository));
 
         UserDto userDto = userService.updateUser(new UserDto(user2.getId(), user2.getName(), user2.getEmail()), 1L);
 
@@ -103,7 +104,7 @@ class UserServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(users.get(0)));
         when(userRepository.findById(10L)).thenReturn(Optional.empty());
 
-        UserServiceImpl userService = new UserServiceImpl(userRepository);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(userRepository));
 
         assertDoesNotThrow(
                 () -> userService.deleteUserById(1L)